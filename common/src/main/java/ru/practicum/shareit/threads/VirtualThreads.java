@@ -0,0 +1,44 @@
+package ru.practicum.shareit.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The modules are compiled for Java 11, so the virtual thread executor is looked up reflectively
+ * and is only available when the application runs on Java 21 or newer. Used by both the gateway and the server.
+ */
+public final class VirtualThreads {
+
+    private static final int FIRST_RELEASE = 21;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Java 19 and 20 have the executor as a preview API that fails without {@code --enable-preview}.
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= FIRST_RELEASE && factory() != null;
+    }
+
+    public static ExecutorService newExecutor() {
+        Method factory = factory();
+        if (Runtime.version().feature() < FIRST_RELEASE || factory == null) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running on " + Runtime.version() + ".");
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor.", e);
+        }
+    }
+
+    private static Method factory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
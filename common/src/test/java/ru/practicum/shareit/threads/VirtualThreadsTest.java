@@ -0,0 +1,35 @@
+package ru.practicum.shareit.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void newExecutor_RunsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        //Тестируем.
+        ExecutorService executor = VirtualThreads.newExecutor();
+        Future<Object> virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+
+        //Проверяем.
+        assertEquals(Boolean.TRUE, virtual.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void newExecutor_WithOldRuntime() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        //Тестируем и проверяем.
+        assertThrows(IllegalStateException.class, VirtualThreads::newExecutor);
+    }
+}
@@ -1,16 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,43 +17,40 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transports) {
+        super(transports.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getAllBookingsWithState(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsWithState(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getBookings("", userId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingByOwner(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getBookings("/owner", userId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> findBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> findBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookingRequestDto bookingRequestDto) {
+    public Mono<ResponseEntity<Object>> addBooking(Long userId, BookingRequestDto bookingRequestDto) {
         return post("", userId, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> bookingApprove(Long userId, Long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> bookingApprove(Long userId, Long bookingId, boolean approved) {
         String approve = String.valueOf(approved);
         return patch("/" + bookingId + "?approved=" + approve, userId, null);
     }
+
+    private Mono<ResponseEntity<Object>> getBookings(String path, Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
+        parameters.put("from", from);
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+    }
 }
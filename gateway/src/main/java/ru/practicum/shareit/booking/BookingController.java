@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStateException;
@@ -26,49 +27,51 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getAllBookingsWithState(
+	public Mono<ResponseEntity<Object>> getAllBookingsWithState(
 			@RequestHeader(header) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getAllBookingsWithState(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+		return bookingClient.getAllBookingsWithState(userId, state, from, size, cursor);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllBookingByOwner(
+	public Mono<ResponseEntity<Object>> getAllBookingByOwner(
 			@RequestHeader(header) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getAllBookingByOwner(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+		return bookingClient.getAllBookingByOwner(userId, state, from, size, cursor);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> findBookingById(@RequestHeader(header) long userId,
-												  @PathVariable @NotNull Long bookingId) {
+	public Mono<ResponseEntity<Object>> findBookingById(@RequestHeader(header) long userId,
+												        @PathVariable @NotNull Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.findBookingById(userId, bookingId);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> addBooking(@RequestHeader(header) long userId,
-											 @RequestBody @Valid BookingRequestDto requestDto) {
+	public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(header) long userId,
+											       @RequestBody @Valid BookingRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.addBooking(userId, requestDto);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> bookingApprove(@RequestHeader(header) Long ownerId,
-												 @PathVariable Long bookingId,
-												 @RequestParam(name = "approved") boolean approved) {
+	public Mono<ResponseEntity<Object>> bookingApprove(@RequestHeader(header) Long ownerId,
+												       @PathVariable Long bookingId,
+												       @RequestParam(name = "approved") boolean approved) {
 		return bookingClient.bookingApprove(ownerId, bookingId, approved);
 	}
 
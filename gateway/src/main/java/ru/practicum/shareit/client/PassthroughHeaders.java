@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Server response headers that may be forwarded as they are; hop-by-hop headers belong to the internal connection.
+ */
+final class PassthroughHeaders {
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    private PassthroughHeaders() {
+    }
+
+    static HttpHeaders of(@Nullable HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                    forwarded.addAll(name, values);
+                }
+            });
+        }
+        return forwarded;
+    }
+}
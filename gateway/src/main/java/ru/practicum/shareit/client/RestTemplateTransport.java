@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+
+/**
+ * Blocking transport: the exchange runs on the subscribing thread, that is the servlet request thread,
+ * unless a scheduler is given to run it on.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    @Nullable
+    private final Scheduler scheduler;
+
+    private final boolean passthrough;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this(rest, null, false);
+    }
+
+    /**
+     * @param passthrough return the body as the server's bytes, with its headers, instead of parsing it
+     */
+    public RestTemplateTransport(RestTemplate rest, @Nullable Scheduler scheduler, boolean passthrough) {
+        this.rest = rest;
+        this.scheduler = scheduler;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        Mono<ResponseEntity<Object>> response = Mono.fromSupplier(() -> {
+            HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+            try {
+                if (passthrough) {
+                    ResponseEntity<byte[]> bytes = send(method, path, requestEntity, parameters, byte[].class);
+                    return ResponseEntity.status(bytes.getStatusCodeValue())
+                            .headers(PassthroughHeaders.of(bytes.getHeaders()))
+                            .<Object>body(bytes.getBody());
+                }
+                return send(method, path, requestEntity, parameters, Object.class);
+            } catch (HttpStatusCodeException e) {
+                ResponseEntity.BodyBuilder error = ResponseEntity.status(e.getRawStatusCode());
+                if (passthrough) {
+                    error.headers(PassthroughHeaders.of(e.getResponseHeaders()));
+                }
+                return error.<Object>body(e.getResponseBodyAsByteArray());
+            }
+        });
+        return scheduler != null ? response.subscribeOn(scheduler) : response;
+    }
+
+    private <T> ResponseEntity<T> send(HttpMethod method, String path, HttpEntity<Object> requestEntity,
+                                       @Nullable Map<String, Object> parameters, Class<T> responseType) {
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, responseType, parameters);
+        }
+        return rest.exchange(path, method, requestEntity, responseType);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport of the gateway-to-server hop, selected by {@code shareit-server.client}: {@code rest-template}
+ * (default) keeps a servlet thread per in-flight request, {@code web-client} releases it while the server answers.
+ */
+@Configuration
+@EnableConfigurationProperties(ServerHttpProperties.class)
+public class ServerHttpClientConfiguration {
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "rest-template", matchIfMissing = true)
+    static class RestTemplateTransportConfiguration {
+
+        /**
+         * One pooled, keep-alive HttpClient for BookingClient, ItemClient, RequestClient and UserClient.
+         * Closed together with the context.
+         */
+        @Bean
+        public HttpComponentsClientHttpRequestFactory serverRequestFactory(ServerHttpProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(properties.getMaxConnections());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getPoolAcquireTimeout().toMillis())
+                    .build();
+
+            long keepAlive = properties.getKeepAlive().toMillis();
+            CloseableHttpClient httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy((response, context) -> {
+                        long announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return announced > 0 ? Math.min(announced, keepAlive) : keepAlive;
+                    })
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+            return new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+
+        /**
+         * With virtual threads enabled the blocking calls run on them, leaving the request thread free.
+         */
+        @Bean
+        public ServerTransportFactory serverTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                                             RestTemplateBuilder builder,
+                                                             HttpComponentsClientHttpRequestFactory serverRequestFactory,
+                                                             @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor,
+                                                             ServerHttpProperties properties) {
+            ExecutorService executor = virtualThreadExecutor.getIfAvailable();
+            Scheduler scheduler = executor != null ? Schedulers.fromExecutorService(executor) : null;
+            return apiPrefix -> new RestTemplateTransport(
+                    builder
+                            .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                            .requestFactory(() -> serverRequestFactory)
+                            .build(),
+                    scheduler,
+                    properties.isPassthrough()
+            );
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "web-client")
+    static class WebClientTransportConfiguration {
+
+        /**
+         * Requests beyond {@code max-connections} queue for a connection instead of holding a thread.
+         */
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider serverConnectionProvider(ServerHttpProperties properties) {
+            return ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxConnections())
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(properties.getPoolAcquireTimeout())
+                    .maxIdleTime(properties.getIdleTimeout())
+                    .maxLifeTime(properties.getKeepAlive())
+                    .evictInBackground(properties.getIdleTimeout())
+                    .build();
+        }
+
+        @Bean
+        public ServerTransportFactory serverTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                                             WebClient.Builder builder,
+                                                             ConnectionProvider serverConnectionProvider,
+                                                             ServerHttpProperties properties) {
+            HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout())
+                    .protocol(properties.isHttp2()
+                            ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                            : new HttpProtocol[]{HttpProtocol.HTTP11});
+            WebClient.Builder connected = builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+            return apiPrefix -> new WebClientTransport(connected.clone().baseUrl(serverUrl + apiPrefix).build(),
+                    properties.isPassthrough());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool of the gateway-to-server hop, shared by all clients. Every client talks to the same
+ * host, so the per-route limit is effectively the pool size.
+ */
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("shareit-server.http")
+public class ServerHttpProperties {
+    int maxConnections = 200;
+
+    int maxConnectionsPerRoute = 200;
+
+    Duration connectTimeout = Duration.ofSeconds(2);
+
+    Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a request may wait for a free pooled connection before failing.
+     */
+    Duration poolAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Upper bound for reusing a connection; kept below the server's keep-alive timeout
+     * so the gateway never picks a connection the server is about to close.
+     */
+    Duration keepAlive = Duration.ofSeconds(15);
+
+    /**
+     * Connections idle for longer than this are closed by a background evictor.
+     */
+    Duration idleTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Pooled connections idle for longer than this are checked before reuse.
+     */
+    Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Lets the {@code web-client} transport upgrade to cleartext HTTP/2 when the server supports it.
+     */
+    boolean http2 = false;
+
+    /**
+     * Forwards response bodies as the server's bytes instead of parsing them into maps and writing them again.
+     */
+    boolean passthrough = true;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the last server response of a GET, keyed on path, query and {@code X-Sharer-User-Id}, together with its
+ * ETag. Every GET still goes to the server, with {@code If-None-Match}; on 304 the kept response is returned,
+ * so a change made anywhere is never hidden, only the body transfer and its processing are saved.
+ */
+@Component
+public class ServerResponseCache {
+    private final boolean enabled;
+
+    private final Cache<String, ResponseEntity<Object>> responses;
+
+    public ServerResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                               @Value("${shareit-server.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${shareit-server.cache.expire-after-access:10m}") Duration expireAfterAccess) {
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Wraps the transport of a client whose GETs should be revalidated; other methods pass through unchanged.
+     */
+    public ServerTransport cached(String apiPrefix, ServerTransport transport) {
+        if (!enabled) {
+            return transport;
+        }
+        return (method, path, headers, parameters, body) -> {
+            if (method != HttpMethod.GET) {
+                return transport.exchange(method, path, headers, parameters, body);
+            }
+            String key = key(apiPrefix, path, headers, parameters);
+            ResponseEntity<Object> cached = responses.getIfPresent(key);
+            if (cached != null) {
+                headers.setIfNoneMatch(cached.getHeaders().getETag());
+            }
+            return transport.exchange(method, path, headers, parameters, body)
+                    .map(response -> revalidated(key, cached, response));
+        };
+    }
+
+    private ResponseEntity<Object> revalidated(String key, @Nullable ResponseEntity<Object> cached, ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+            return cached;
+        }
+        if (response.getStatusCode().is2xxSuccessful() && response.getHeaders().getETag() != null) {
+            responses.put(key, response);
+        } else {
+            responses.invalidate(key);
+        }
+        return response;
+    }
+
+    private static String key(String apiPrefix, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters) {
+        Map<String, Object> query = parameters != null ? new TreeMap<>(parameters) : Map.of();
+        return apiPrefix + path + " " + query + " " + headers.getFirst("X-Sharer-User-Id");
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Sends one request to the server. Error statuses are not exceptions: they come back as a response
+ * carrying the raw error body.
+ */
+public interface ServerTransport {
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+}
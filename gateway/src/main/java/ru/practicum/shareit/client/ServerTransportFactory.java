@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates the transport of one client; paths passed to it are relative to the server URL plus the API prefix.
+ */
+@FunctionalInterface
+public interface ServerTransportFactory {
+
+    ServerTransport create(String apiPrefix);
+}
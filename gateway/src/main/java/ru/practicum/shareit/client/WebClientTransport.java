@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking transport: no thread waits for the server, the response completes on a Netty event loop.
+ */
+public class WebClientTransport implements ServerTransport {
+    private final WebClient web;
+
+    private final boolean passthrough;
+
+    public WebClientTransport(WebClient web) {
+        this(web, false);
+    }
+
+    /**
+     * @param passthrough return the body as the server's bytes, with its headers, instead of parsing it
+     */
+    public WebClientTransport(WebClient web, boolean passthrough) {
+        this.web = web;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> {
+            if (passthrough) {
+                return response.toEntity(byte[].class)
+                        .map(bytes -> ResponseEntity.status(bytes.getStatusCodeValue())
+                                .headers(PassthroughHeaders.of(bytes.getHeaders()))
+                                .<Object>body(bytes.getBody()));
+            }
+            if (response.statusCode().isError()) {
+                return response.bodyToMono(byte[].class)
+                        .map(bytes -> ResponseEntity.status(response.rawStatusCode()).<Object>body(bytes))
+                        .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
+            }
+            return response.toEntity(Object.class);
+        });
+    }
+}
@@ -2,11 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -14,6 +16,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Controller
@@ -28,7 +31,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUser(
+    public Mono<ResponseEntity<Object>> getItemsByUser(
             @RequestHeader(header) Long userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size
@@ -37,28 +40,38 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findItemById(
+    public Mono<ResponseEntity<Object>> findItemById(
             @RequestHeader(header) Long userId,
             @PathVariable("itemId") Long itemId
     ) {
         return itemClient.findItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @RequestHeader(header) Long userId,
+            @PathVariable("itemId") Long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(
+    public Mono<ResponseEntity<Object>> searchItems(
             @RequestHeader(header) Long userId,
             @RequestParam String text,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size
     ) {
         if (text == null || text.isBlank()) {
-            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK));
         }
         return itemClient.searchItems(userId, text, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(
+    public Mono<ResponseEntity<Object>> addItem(
             @RequestHeader(header) @NotNull Long userId,
             @RequestBody @Valid ItemDto itemDto
     ) {
@@ -66,7 +79,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @RequestHeader(header) Long userId,
             @PathVariable("itemId") Long itemId,
             @RequestBody ItemDto itemDto
@@ -75,7 +88,7 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addComment(
             @RequestHeader(header) Long userId,
             @PathVariable("itemId") Long itemId,
             @RequestBody @Valid CommentDto commentDto
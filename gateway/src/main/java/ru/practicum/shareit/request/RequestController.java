@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -25,12 +26,12 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwnRequests(@RequestHeader(header) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllOwnRequests(@RequestHeader(header) Long userId) {
         return requestClient.getAllOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllOthersRequests(
+    public Mono<ResponseEntity<Object>> getAllOthersRequests(
             @RequestHeader(header) Long userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size
@@ -39,7 +40,7 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(
+    public Mono<ResponseEntity<Object>> getRequest(
             @RequestHeader(header) Long userId,
             @PathVariable @NotNull Long requestId
     ) {
@@ -47,7 +48,7 @@ public class RequestController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(
+    public Mono<ResponseEntity<Object>> addRequest(
             @RequestHeader(header) Long userId,
             @RequestBody @Valid ItemRequestDto itemRequestDto
     ) {
@@ -1,13 +1,12 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -16,32 +15,27 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransportFactory transports, ServerResponseCache responseCache) {
+        super(responseCache.cached(API_PREFIX, transports.create(API_PREFIX)));
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 }
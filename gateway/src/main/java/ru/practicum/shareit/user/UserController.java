@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -20,19 +21,19 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Get all users:");
         return userClient.getUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserDto userDto) {
         log.info("Create User {}", userDto);
         return userClient.addUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(
+    public Mono<ResponseEntity<Object>> updateUser(
             @PathVariable Long userId,
             @RequestBody UserDto userDto
     ) {
@@ -41,13 +42,13 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("Get user by userId={}", userId);
         return userClient.getUserById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Delete user by userId={}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ServerResponseCacheTest {
+
+    StubTransport server;
+
+    ServerTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        server = new StubTransport();
+        transport = new ServerResponseCache(true, 100, Duration.ofMinutes(10)).cached("/items", server);
+    }
+
+    @Test
+    void get_Miss_SendsNoIfNoneMatch() {
+        //Создаем сущности.
+        server.reply(ok("Fork", "\"v1\""));
+
+        //Тестируем.
+        ResponseEntity<Object> response = get("/1", 1L, null);
+
+        //Проверяем.
+        assertEquals("Fork", response.getBody());
+        assertNull(server.ifNoneMatch.get(0));
+    }
+
+    @Test
+    void get_NotModified_ServesCachedResponse() {
+        //Создаем сущности.
+        ResponseEntity<Object> first = ok("Fork", "\"v1\"");
+        server.reply(first);
+        server.reply(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build());
+        get("/1", 1L, null);
+
+        //Тестируем.
+        ResponseEntity<Object> second = get("/1", 1L, null);
+
+        //Проверяем.
+        assertSame(first, second);
+        assertEquals("\"v1\"", server.ifNoneMatch.get(1));
+    }
+
+    @Test
+    void get_Modified_ReplacesCachedResponse() {
+        //Создаем сущности.
+        server.reply(ok("Fork", "\"v1\""));
+        server.reply(ok("Spoon", "\"v2\""));
+        server.reply(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        get("/1", 1L, null);
+        get("/1", 1L, null);
+
+        //Тестируем.
+        ResponseEntity<Object> third = get("/1", 1L, null);
+
+        //Проверяем.
+        assertEquals("Spoon", third.getBody());
+        assertEquals(List.of("\"v1\"", "\"v2\""), server.ifNoneMatch.subList(1, 3));
+    }
+
+    @Test
+    void get_ErrorOrMissingEtag_EvictsEntry() {
+        //Создаем сущности.
+        server.reply(ok("Fork", "\"v1\""));
+        server.reply(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new byte[0]));
+        server.reply(ok("Fork", "\"v1\""));
+        server.reply(ResponseEntity.ok("Fork"));
+        server.reply(ok("Fork", "\"v1\""));
+
+        //Тестируем.
+        for (int i = 0; i < 5; i++) {
+            get("/1", 1L, null);
+        }
+
+        //Проверяем.
+        assertEquals(Arrays.asList(null, "\"v1\"", null, "\"v1\"", null), server.ifNoneMatch);
+    }
+
+    @Test
+    void get_KeysOnQueryAndUser() {
+        //Создаем сущности.
+        for (int i = 0; i < 4; i++) {
+            server.reply(ok("Fork", "\"v1\""));
+        }
+
+        //Тестируем.
+        get("/search?text={text}&from={from}&size={size}", 1L, Map.of("text", "fork", "from", 0, "size", 10));
+        get("/search?text={text}&from={from}&size={size}", 2L, Map.of("text", "fork", "from", 0, "size", 10));
+        get("/search?text={text}&from={from}&size={size}", 1L, Map.of("text", "fork", "from", 10, "size", 10));
+        get("/search?text={text}&from={from}&size={size}", 1L, Map.of("size", 10, "from", 0, "text", "fork"));
+
+        //Проверяем.
+        assertEquals(Arrays.asList(null, null, null, "\"v1\""), server.ifNoneMatch);
+    }
+
+    @Test
+    void post_PassesThroughUncached() {
+        //Создаем сущности.
+        server.reply(ok("Fork", "\"v1\""));
+        server.reply(ok("Fork", "\"v1\""));
+
+        //Тестируем.
+        transport.exchange(HttpMethod.POST, "", headers(1L), null, "Fork").block();
+        get("", 1L, null);
+
+        //Проверяем.
+        assertEquals(Arrays.asList(null, null), server.ifNoneMatch);
+    }
+
+    @Test
+    void disabled_ReturnsTransportItself() {
+        //Тестируем и проверяем.
+        assertSame(server, new ServerResponseCache(false, 100, Duration.ofMinutes(10)).cached("/items", server));
+    }
+
+    private ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return transport.exchange(HttpMethod.GET, path, headers(userId), parameters, null).block();
+    }
+
+    private static HttpHeaders headers(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+
+    private static ResponseEntity<Object> ok(String body, String etag) {
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * Replies with the queued responses in order and records the If-None-Match of every request.
+     */
+    static class StubTransport implements ServerTransport {
+        final Deque<ResponseEntity<Object>> replies = new ArrayDeque<>();
+
+        final List<String> ifNoneMatch = new ArrayList<>();
+
+        void reply(ResponseEntity<Object> response) {
+            replies.add(response);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+            ifNoneMatch.add(headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+            return Mono.just(replies.remove());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Both transports against one stub server over real HTTP; they must hand BaseClient the same responses.
+ */
+class ServerTransportTest {
+
+    static final String ITEM = "{\"id\":1,\"name\":\"Fork\"}";
+
+    static final String NOT_FOUND = "{\"error\":\"Item 404 not found.\"}";
+
+    static HttpServer server;
+
+    static String baseUrl;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", ServerTransportTest::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/items";
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop(0);
+    }
+
+    static Stream<Arguments> transports() {
+        return Stream.of(
+                Arguments.of("rest-template", false),
+                Arguments.of("rest-template", true),
+                Arguments.of("web-client", false),
+                Arguments.of("web-client", true));
+    }
+
+    @ParameterizedTest
+    @MethodSource("transports")
+    void exchange_ErrorStatus_PassesRawBody(String type, boolean passthrough) {
+        //Тестируем.
+        ResponseEntity<Object> response = transport(type, passthrough)
+                .exchange(HttpMethod.GET, "/404", headers(), null, null).block();
+
+        //Проверяем.
+        assertEquals(404, response.getStatusCodeValue());
+        assertInstanceOf(byte[].class, response.getBody());
+        assertArrayEquals(NOT_FOUND.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @ParameterizedTest
+    @MethodSource("transports")
+    void exchange_ExpandsAndEncodesQueryParameters(String type, boolean passthrough) {
+        //Тестируем.
+        ResponseEntity<Object> response = transport(type, passthrough).exchange(HttpMethod.GET,
+                "/search?text={text}&from={from}&size={size}", headers(),
+                Map.of("text", "fork & knife", "from", 0, "size", 10), null).block();
+
+        //Проверяем.
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("{\"query\":\"text=fork%20%26%20knife&from=0&size=10\"}", text(response));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void exchange_BothTransportsGiveSameResponse(boolean passthrough) {
+        //Тестируем.
+        ResponseEntity<Object> rest = transport("rest-template", passthrough)
+                .exchange(HttpMethod.GET, "/1", headers(), null, null).block();
+        ResponseEntity<Object> web = transport("web-client", passthrough)
+                .exchange(HttpMethod.GET, "/1", headers(), null, null).block();
+
+        //Проверяем.
+        assertEquals(rest.getStatusCode(), web.getStatusCode());
+        assertEquals(rest.getHeaders().getContentType(), web.getHeaders().getContentType());
+        assertEquals(rest.getHeaders().getETag(), web.getHeaders().getETag());
+        if (passthrough) {
+            assertArrayEquals((byte[]) rest.getBody(), (byte[]) web.getBody());
+            assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), (byte[]) web.getBody());
+            assertNull(web.getHeaders().getFirst(HttpHeaders.CONNECTION));
+        } else {
+            assertEquals(rest.getBody(), web.getBody());
+            assertEquals(Map.of("id", 1, "name", "Fork"), web.getBody());
+        }
+    }
+
+    private static ServerTransport transport(String type, boolean passthrough) {
+        if (type.equals("rest-template")) {
+            return new RestTemplateTransport(new RestTemplateBuilder()
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                    .build(), null, passthrough);
+        }
+        return new WebClientTransport(WebClient.builder().baseUrl(baseUrl).build(), passthrough);
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+
+    private static String text(ResponseEntity<Object> response) {
+        if (response.getBody() instanceof byte[]) {
+            return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+        }
+        return "{\"query\":\"" + ((Map<?, ?>) response.getBody()).get("query") + "\"}";
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String body;
+        if (path.equals("/items/1")) {
+            body = ITEM;
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"v1\"");
+        } else if (path.equals("/items/search")) {
+            body = "{\"query\":\"" + exchange.getRequestURI().getRawQuery() + "\"}";
+        } else {
+            status = 404;
+            body = NOT_FOUND;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ten thousand slow calls in flight at once through the web-client transport, against a stub server that holds
+ * every response until all calls are in flight and then answers each after a delay, without holding a thread.
+ * The JVM's peak thread count must stay flat.
+ */
+class WebClientTransportLoadTest {
+
+    static final int REQUESTS = 10_000;
+
+    static final int MAX_CONNECTIONS = 200;
+
+    static final long DELAY_MILLIS = 100;
+
+    static final byte[] ITEM = "{\"id\":1,\"name\":\"Fork\"}".getBytes(StandardCharsets.UTF_8);
+
+    static final CompletableFuture<Void> allInFlight = new CompletableFuture<>();
+
+    static ScheduledExecutorService delays;
+
+    static HttpServer server;
+
+    static String baseUrl;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        delays = Executors.newSingleThreadScheduledExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), MAX_CONNECTIONS);
+        server.createContext("/items", WebClientTransportLoadTest::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/items";
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop(0);
+        delays.shutdownNow();
+    }
+
+    @Test
+    void exchange_TenThousandSlowRequests_ThreadCountStaysFlat() {
+        //Создаем сущности.
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(MAX_CONNECTIONS)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .build();
+        ServerTransport transport = new WebClientTransport(WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .baseUrl(baseUrl)
+                .build(), true);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger inFlight = new AtomicInteger();
+        int before = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        //Тестируем.
+        List<ResponseEntity<Object>> responses = Flux.range(0, REQUESTS)
+                .flatMap(i -> transport.exchange(HttpMethod.GET, "/1", headers, null, null)
+                        .doOnSubscribe(subscription -> {
+                            if (inFlight.incrementAndGet() == REQUESTS) {
+                                allInFlight.complete(null);
+                            }
+                        }), REQUESTS)
+                .collectList()
+                .block(Duration.ofMinutes(2));
+        int peak = threads.getPeakThreadCount();
+        connections.dispose();
+
+        //Проверяем.
+        assertEquals(REQUESTS, responses.size());
+        assertTrue(responses.stream().allMatch(response -> response.getStatusCodeValue() == 200));
+        assertTrue(peak - before < 50, () -> "Threads grew from " + before + " to " + peak + " for " + REQUESTS + " requests");
+    }
+
+    /**
+     * Answers from the scheduler thread, so waiting requests hold a connection but no thread.
+     */
+    private static void handle(HttpExchange exchange) {
+        allInFlight.thenRun(() -> delays.schedule(() -> {
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                exchange.sendResponseHeaders(200, ITEM.length);
+                out.write(ITEM);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DELAY_MILLIS, TimeUnit.MILLISECONDS));
+    }
+}
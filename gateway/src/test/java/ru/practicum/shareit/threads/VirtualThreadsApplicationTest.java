@@ -0,0 +1,92 @@
+package ru.practicum.shareit.threads;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the gateway on Tomcat with {@code shareit.threads.virtual=true} in front of a stub server.
+ * Runs only on Java 21 or newer.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "shareit.threads.virtual=true")
+@EnabledIf("ru.practicum.shareit.threads.VirtualThreads#isSupported")
+@Import(VirtualThreadsApplicationTest.CurrentThreadController.class)
+class VirtualThreadsApplicationTest {
+
+    static final String USER = "{\"id\":1,\"name\":\"Ivan\",\"email\":\"ivan@virtual.com\"}";
+
+    static HttpServer server;
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", VirtualThreadsApplicationTest::handle);
+        server.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void request_RunsOnVirtualThread() {
+        //Тестируем.
+        ResponseEntity<Boolean> response = rest.getForEntity("/current-thread/virtual", Boolean.class);
+
+        //Проверяем.
+        assertEquals(Boolean.TRUE, response.getBody());
+    }
+
+    @Test
+    void getUser_ProxiedWithVirtualThreads() {
+        //Тестируем.
+        ResponseEntity<String> response = rest.getForEntity("/users/1", String.class);
+
+        //Проверяем.
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(USER, response.getBody());
+    }
+
+    @RestController
+    static class CurrentThreadController {
+
+        @GetMapping("/current-thread/virtual")
+        public Object isVirtual() throws ReflectiveOperationException {
+            return Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        byte[] bytes = USER.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -11,6 +15,8 @@ import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
+ * Listings are paged by {@code from} and {@code size}, or by {@code cursor} and {@code size}. In cursor mode
+ * every state, CURRENT included, is ordered by start and id descending; in offset mode CURRENT is ordered by id.
  */
 @RestController
 @RequestMapping(path = "/bookings")
@@ -19,22 +25,34 @@ public class BookingController {
 
     private static final String header = "X-Sharer-User-Id";
 
+    private static final String nextCursorHeader = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @GetMapping
-    public List<BookingDto> getAllBookingsWithState(@RequestHeader(header) Long userId,
-                                                    @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                                    @RequestParam(value = "from", required = false) Integer from,
-                                                    @RequestParam(value = "size", required = false) Integer size) {
-        return bookingService.getAllBookingsWithState(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookingsWithState(@RequestHeader(header) Long userId,
+                                                                    @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                                    @RequestParam(value = "from", required = false) Integer from,
+                                                                    @RequestParam(value = "size", required = false) Integer size,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            requireCursorSize(size);
+            return withNextCursor(bookingService.getAllBookingsWithStateByCursor(userId, state, BookingCursor.decode(cursor), size), size);
+        }
+        return ResponseEntity.ok(bookingService.getAllBookingsWithState(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingByOwner(@RequestHeader(header) Long userId,
-                                                 @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                                 @RequestParam(value = "from", required = false) Integer from,
-                                                 @RequestParam(value = "size", required = false) Integer size) {
-        return bookingService.getBookingByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookingByOwner(@RequestHeader(header) Long userId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                                 @RequestParam(value = "from", required = false) Integer from,
+                                                                 @RequestParam(value = "size", required = false) Integer size,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            requireCursorSize(size);
+            return withNextCursor(bookingService.getBookingByOwnerByCursor(userId, state, BookingCursor.decode(cursor), size), size);
+        }
+        return ResponseEntity.ok(bookingService.getBookingByOwner(userId, state, from, size));
     }
 
     @GetMapping("/{bookingId}")
@@ -56,4 +74,19 @@ public class BookingController {
         return bookingService.bookingApprove(ownerId, bookingId, approved);
     }
 
+    private static void requireCursorSize(Integer size) {
+        if (size == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size is required with a cursor.");
+        }
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        String nextCursor = BookingCursor.of(bookings.get(bookings.size() - 1)).encode();
+        return ResponseEntity.ok()
+                .header(nextCursorHeader, nextCursor)
+                .body(bookings);
+    }
 }
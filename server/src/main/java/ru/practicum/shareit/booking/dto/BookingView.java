@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a booking listing, filled by a constructor expression with exactly the columns
+ * {@link BookingDto} needs. Instances are not managed, so listings leave the persistence context empty.
+ */
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingView {
+    Long id;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    Status status;
+
+    Long bookerId;
+
+    String bookerName;
+
+    String bookerEmail;
+
+    Long itemId;
+
+    String itemName;
+
+    String itemDescription;
+
+    Boolean itemAvailable;
+
+    Long ownerId;
+
+    String ownerName;
+
+    String ownerEmail;
+
+    Long requestId;
+}
@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.booking.model.Booking;
@@ -22,6 +25,25 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDto toBookingDto(BookingView booking) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                new UserDto(booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail()),
+                new ItemDto(
+                        booking.getItemId(),
+                        booking.getItemName(),
+                        booking.getItemDescription(),
+                        booking.getItemAvailable(),
+                        new UserDto(booking.getOwnerId(), booking.getOwnerName(), booking.getOwnerEmail()),
+                        booking.getRequestId(),
+                        null
+                ),
+                booking.getStatus().toString()
+        );
+    }
+
     public static Booking toBooking(BookingDto bookingDto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setId(bookingDto.getId());
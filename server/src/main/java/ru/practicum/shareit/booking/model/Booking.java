@@ -44,5 +44,15 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     Status status;
+
+    /**
+     * Bumped on every update; a concurrent status change of the same booking fails instead of being overwritten.
+     */
+    @Version
+    Long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this(id, start, end, item, booker, status, null);
+    }
 }
 
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.dto.PeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Taken periods of one item, sorted by start and merged into disjoint half-open intervals, for the availability
+ * calendar. The lookup binary-searches the first interval that ends after the requested start,
+ * so it costs O(log n) plus the number of intervals inside the requested window.
+ */
+public final class BookingIntervals {
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private BookingIntervals(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static BookingIntervals of(List<PeriodDto> periods) {
+        List<PeriodDto> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparing(PeriodDto::getStart));
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (PeriodDto period : sorted) {
+            int last = ends.size() - 1;
+            if (last >= 0 && !period.getStart().isAfter(ends.get(last))) {
+                if (period.getEnd().isAfter(ends.get(last))) {
+                    ends.set(last, period.getEnd());
+                }
+            } else {
+                starts.add(period.getStart());
+                ends.add(period.getEnd());
+            }
+        }
+        return new BookingIntervals(starts.toArray(new LocalDateTime[0]), ends.toArray(new LocalDateTime[0]));
+    }
+
+    /**
+     * Free periods between {@code from} and {@code to}, in chronological order.
+     */
+    public List<PeriodDto> free(LocalDateTime from, LocalDateTime to) {
+        List<PeriodDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (int i = firstEndingAfter(from); i < ends.length && starts[i].isBefore(to); i++) {
+            if (starts[i].isAfter(cursor)) {
+                free.add(new PeriodDto(cursor, starts[i]));
+            }
+            cursor = ends[i];
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new PeriodDto(cursor, to));
+        }
+        return free;
+    }
+
+    private int firstEndingAfter(LocalDateTime time) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle].isAfter(time)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -1,8 +1,16 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    /**
+     * Bookings in these statuses hold their period: no other booking of the item may overlap it.
+     */
+    public static final Set<Status> ACTIVE = EnumSet.of(WAITING, APPROVED);
 }
@@ -1,42 +1,56 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByIdAsc(Long userId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long userId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(Long userId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Optional<Booking> findTopByItemOwnerIdAndStatusAndStartBeforeOrderByEndDesc(Long ownerId, Status status, LocalDateTime start);
-
-    Optional<Booking> findTopByItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(Long ownerId, Status status, LocalDateTime start);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
     List<Booking> findBookingByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long userId, Status status, LocalDateTime end);
 
     List<Booking> findBookingByItemIdOrderByStartAsc(Long itemId);
+
+    /**
+     * Whether the item has a booking in the given statuses that overlaps {@code [start, end)}.
+     * Note the argument order: the new booking's {@code end} comes first, since an existing booking overlaps
+     * when it starts before that end and ends after the new {@code start}.
+     */
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Periods of the item's bookings in the given statuses that intersect {@code [from, to)}, ordered by start.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.PeriodDto(b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.start")
+    List<PeriodDto> findPeriods(@Param("itemId") Long itemId,
+                                @Param("statuses") Collection<Status> statuses,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    /**
+     * Returns, for every given item, the bookings that start latest among the finished ones
+     * and earliest among the upcoming ones. Ties on start date may yield more than one row per item.
+     */
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND (b.start = (SELECT MAX(pb.start) FROM Booking pb WHERE pb.item = b.item AND pb.end < :now) " +
+            "OR b.start = (SELECT MIN(nb.start) FROM Booking nb WHERE nb.item = b.item AND nb.start > :now))")
+    List<Booking> findLastAndNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = :status " +
+            "AND (b.start = (SELECT MAX(pb.start) FROM Booking pb WHERE pb.item.id = :itemId AND pb.status = :status AND pb.start < :now) " +
+            "OR b.start = (SELECT MIN(nb.start) FROM Booking nb WHERE nb.item.id = :itemId AND nb.status = :status AND nb.start > :now))")
+    List<Booking> findLastAndNextBookingsByItemId(@Param("itemId") Long itemId,
+                                                  @Param("status") Status status,
+                                                  @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Offset page of bookings for the given role and state. Current bookings are ordered by id,
+     * all others by start and id descending. No count query is issued.
+     */
+    List<BookingView> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                               long offset, int limit);
+
+    /**
+     * Keyset page of bookings ordered by start and id descending, seeking past the cursor
+     * instead of skipping rows with an offset. No count query is issued.
+     * Current bookings are ordered by start here too, unlike in {@link #findPage}: the cursor is a position
+     * in that order, so an id order cannot be resumed from it.
+     */
+    List<BookingView> findAllAfter(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                   BookingCursor cursor, int limit);
+}
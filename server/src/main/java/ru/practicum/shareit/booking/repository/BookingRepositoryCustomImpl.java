@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                      long offset, int limit) {
+        return createQuery(role, userId, state, now, null, state == BookingState.CURRENT)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingView> findAllAfter(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                          BookingCursor cursor, int limit) {
+        return createQuery(role, userId, state, now, cursor, false)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Builds the listing query for the given role and state. Every value is bound as a parameter,
+     * so each state always renders the same SQL and its prepared statement can be reused.
+     * Rows are selected straight into {@link BookingView}, no entity is loaded.
+     */
+    private TypedQuery<BookingView> createQuery(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                                BookingCursor cursor, boolean orderById) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, User> booker = booking.join("booker");
+        Join<Booking, Item> item = booking.join("item");
+        Join<Item, User> owner = item.join("owner");
+        Join<Item, ItemRequest> request = item.join("request", JoinType.LEFT);
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+        Map<String, Object> parameters = new HashMap<>();
+        List<Predicate> predicates = new ArrayList<>();
+
+        Path<Long> user = role == BookingRole.OWNER ? owner.get("id") : booker.get("id");
+        predicates.add(cb.equal(user, cb.parameter(Long.class, "userId")));
+        parameters.put("userId", userId);
+
+        ParameterExpression<LocalDateTime> nowParameter = cb.parameter(LocalDateTime.class, "now");
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, nowParameter));
+                predicates.add(cb.greaterThan(end, nowParameter));
+                parameters.put("now", now);
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, nowParameter));
+                parameters.put("now", now);
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, nowParameter));
+                parameters.put("now", now);
+                break;
+            case WAITING:
+            case REJECTED:
+            case CANCELED:
+                predicates.add(cb.equal(booking.get("status"), cb.parameter(Status.class, "status")));
+                parameters.put("status", Status.valueOf(state.name()));
+                break;
+            default:
+                break;
+        }
+
+        if (cursor != null) {
+            ParameterExpression<LocalDateTime> cursorStart = cb.parameter(LocalDateTime.class, "cursorStart");
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursorStart),
+                    cb.and(cb.equal(start, cursorStart), cb.lessThan(id, cb.parameter(Long.class, "cursorId")))));
+            parameters.put("cursorStart", cursor.getStart());
+            parameters.put("cursorId", cursor.getId());
+        }
+
+        query.select(cb.construct(BookingView.class,
+                        id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        owner.get("id"), owner.get("name"), owner.get("email"),
+                        request.get("id")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orderById ? List.of(cb.asc(id)) : List.of(cb.desc(start), cb.desc(id)));
+
+        TypedQuery<BookingView> typedQuery = entityManager.createQuery(query);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery;
+    }
+}
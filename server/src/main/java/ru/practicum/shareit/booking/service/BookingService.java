@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
@@ -16,4 +17,8 @@ public interface BookingService {
     BookingDto bookingApprove(Long ownerId, Long bookingId, boolean approved);
 
     List<BookingDto> getAllBookingsWithState(Long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getAllBookingsWithStateByCursor(Long userId, String state, BookingCursor cursor, Integer size);
+
+    List<BookingDto> getBookingByOwnerByCursor(Long userId, String state, BookingCursor cursor, Integer size);
 }
@@ -4,22 +4,30 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundBookingException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -40,89 +48,42 @@ public class BookingServiceImpl implements BookingService {
     BookingRepository bookingRepository;
     UserService userService;
     ItemService itemService;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsWithState(Long userId, String state, Integer from, Integer size) {
-        userService.findUserById(userId);
-        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
-        int pageNumber = (int) Math.ceil((double) from / size);
-        Pageable pageable = PageRequest.of(pageNumber, size);
-
-        switch (state) {
-            case "WAITING":
-                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "CURRENT":
-                return bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByIdAsc(userId, now, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "REJECTED":
-                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "CANCELED":
-                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.CANCELED, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "FUTURE":
-                return bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "PAST":
-                return bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            default:
-                return bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-        }
+        return findPage(BookingRole.BOOKER, userId, state, from, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingByOwner(Long userId, String state, Integer from, Integer size) {
-        userService.findUserById(userId);
+        return findPage(BookingRole.OWNER, userId, state, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsWithStateByCursor(Long userId, String state, BookingCursor cursor, Integer size) {
+        userService.checkUserExists(userId);
         LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
-        int pageNumber = (int) Math.ceil((double) from / size);
-        Pageable pageable = PageRequest.of(pageNumber, size);
-
-        switch (state) {
-            case "WAITING":
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "CURRENT":
-                return bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(userId, now, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "REJECTED":
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "CANCELED":
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.CANCELED, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "FUTURE":
-                return bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case "PAST":
-                return bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            default:
-                return bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-        }
+
+        return toBookingDtos(bookingRepository.findAllAfter(BookingRole.BOOKER, userId, BookingState.from(state), now, cursor, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingByOwnerByCursor(Long userId, String state, BookingCursor cursor, Integer size) {
+        userService.checkUserExists(userId);
+        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
+
+        return toBookingDtos(bookingRepository.findAllAfter(BookingRole.OWNER, userId, BookingState.from(state), now, cursor, size));
     }
 
     @Override
     public BookingDto addBooking(Long userId, BookingRequestDto bookingRequestDto) {
-        User booker = UserMapper.toUser(userService.findUserById(userId));
-        Item item = itemService.findItem(bookingRequestDto.getItemId());
+        User booker = userService.getUserReference(userId);
+        Item item = itemService.lockItem(bookingRequestDto.getItemId());
         if (!item.isAvailable()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item is not available.");
         }
@@ -134,9 +95,13 @@ public class BookingServiceImpl implements BookingService {
                 || bookingRequestDto.getStart().equals(bookingRequestDto.getEnd())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Wrong Timestamps");
         }
-        if (item.getOwner().equals(booker)) {
+        if (item.getOwner().getId().equals(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "You are owner!");
         }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.ACTIVE,
+                bookingRequestDto.getEnd(), bookingRequestDto.getStart())) {
+            throw new BookingConflictException(String.format("Item %s is already booked for this time.", item.getId()));
+        }
         Booking booking = new Booking(
                 bookingRequestDto.getId(),
                 bookingRequestDto.getStart(),
@@ -144,13 +109,19 @@ public class BookingServiceImpl implements BookingService {
                 item,
                 booker,
                 Status.WAITING);
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException(String.format("Item %s is already booked for this time.", item.getId()));
+        }
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
         return BookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto findBookingById(Long userId, Long bookingId) {
-        userService.findUserById(userId);
+        userService.checkUserExists(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundBookingException(String.format("Booking %s not found.", bookingId)));
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId)) {
             return BookingMapper.toBookingDto(booking);
@@ -159,9 +130,17 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * A concurrent change of the same booking makes the commit fail on the version check; the whole call
+     * is then repeated in a new transaction and sees the winner's status, just as if the calls had been sequential.
+     * Repeating the current status is refused, so at most two changes ever commit (WAITING, REJECTED, APPROVED)
+     * and a call loses the version check at most twice: three attempts always end in a result or a 400, however
+     * many callers race. The 409 for an exhausted retry in ErrorHandler is only a safety net.
+     */
     @Override
+    @Retryable(value = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 10, maxDelay = 100, random = true))
     public BookingDto bookingApprove(Long ownerId, Long bookingId, boolean approved) {
-        userService.findUserById(ownerId);
+        userService.checkUserExists(ownerId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundBookingException(String.format("Booking %s not found.", bookingId)));
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "You are not owner!");
@@ -169,12 +148,30 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "It already approved!");
         }
+        if (!approved && booking.getStatus().equals(Status.REJECTED)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "It already rejected!");
+        }
         if (approved) {
             booking.setStatus(Status.APPROVED);
         } else {
             booking.setStatus(Status.REJECTED);
         }
         bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem().getId()));
         return BookingMapper.toBookingDto(booking);
     }
+
+    private List<BookingDto> findPage(BookingRole role, Long userId, String state, Integer from, Integer size) {
+        userService.checkUserExists(userId);
+        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
+        int pageNumber = (int) Math.ceil((double) from / size);
+
+        return toBookingDtos(bookingRepository.findPage(role, userId, BookingState.from(state), now, (long) pageNumber * size, size));
+    }
+
+    private List<BookingDto> toBookingDtos(List<BookingView> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Item and user GETs carry an ETag of their body; a request whose {@code If-None-Match} still matches gets
+ * an empty 304. The gateway revalidates its cached responses this way.
+ */
+@Configuration
+public class EtagConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/users/*");
+        return registration;
+    }
+}
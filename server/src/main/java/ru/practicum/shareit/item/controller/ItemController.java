@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithDate;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -33,6 +36,14 @@ public class ItemController {
         return itemService.findItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<PeriodDto> getAvailability(@RequestHeader(header) Long userId,
+                                           @PathVariable("itemId") Long itemId,
+                                           @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestHeader(header) Long userId,
                                      @RequestParam String text,
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Published when anything shown on the item card changes: the item itself, its comments or its bookings.
+ */
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemChangedEvent {
+    Long itemId;
+}
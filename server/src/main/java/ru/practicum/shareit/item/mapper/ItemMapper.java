@@ -4,6 +4,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithDate;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 public class ItemMapper {
@@ -31,6 +33,17 @@ public class ItemMapper {
         );
     }
 
+    public static Item toItem(ItemDto itemDto, User owner, ItemRequest request) {
+        return new Item(
+                itemDto.getId(),
+                itemDto.getName(),
+                itemDto.getDescription(),
+                itemDto.isAvailable(),
+                owner,
+                request
+        );
+    }
+
     public static ItemDtoWithDate toItemDtoWithDate(Item item) {
         return new ItemDtoWithDate(
                 item.getId(),
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -14,6 +16,8 @@ import javax.validation.constraints.NotNull;
  */
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,7 +35,7 @@ public class Item {
     @NotEmpty(message = "Item description can't be Empty")
     String description;
 
-    @Column(nullable = false)
+    @Column(name = "is_available", nullable = false)
     @NotNull(message = "Item availability can't be Null")
     Boolean available;
 
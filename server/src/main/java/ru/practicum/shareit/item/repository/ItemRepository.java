@@ -2,23 +2,62 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwner(User owner);
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.requester"})
     Page<Item> findByOwner(User owner, Pageable pageable);
 
     @Query("SELECT i FROM Item i WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))")
     List<Item> searchItems(String text);
 
-    @Query("SELECT i FROM Item i WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))")
-    Page<Item> searchItems(String text, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) ORDER BY i.id")
+    List<Item> searchItems(String text, Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i WHERE i.is_available AND (i.name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY GREATEST(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id", nativeQuery = true)
+    List<Number> searchItemIdsByTrigram(@Param("text") String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id IN :itemIds")
+    List<Item> findAllWithOwnerByIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner LEFT JOIN FETCH i.request WHERE i.available = TRUE AND i.id > :afterId ORDER BY i.id")
+    List<Item> findAvailableWithOwnerAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner LEFT JOIN FETCH i.request WHERE i.available = TRUE AND i.owner.id = :ownerId")
+    List<Item> findAvailableWithOwnerByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Loads the item and locks its row until the end of the transaction. Bookings of one item
+     * are serialized on this lock, bookings of different items do not wait for each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
 
     List<Item> findAllByRequestId(Long requestId);
+
+    /**
+     * Item card in one round trip: one row per comment, or a single row with null comment and author.
+     */
+    @Query("SELECT i, c, a FROM Item i JOIN FETCH i.owner LEFT JOIN FETCH i.request r LEFT JOIN FETCH r.requester " +
+            "LEFT JOIN Comment c ON c.item = i LEFT JOIN c.author a WHERE i.id = :itemId ORDER BY c.id")
+    List<Object[]> findItemCard(@Param("itemId") Long itemId);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.request.id IN :requestIds")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 }
@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index over the name and description of available items.
+ * Loaded from the database on startup and then kept current by {@link #index(Item)} and, for the owner copies
+ * kept with each item, by {@link UserChangedEvent}; searches never touch the database.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    ItemRepository itemRepository;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Map<Long, Item> documents = new HashMap<>();
+
+    Map<String, LongPostingList> postings = new HashMap<>();
+
+    LongPostingList allIds = new LongPostingList();
+
+    /**
+     * Items changed while a rebuild runs; the rebuild read them earlier, so its copies must not win.
+     */
+    Set<Long> changedDuringRebuild = new HashSet<>();
+
+    @NonFinal
+    boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long afterId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAvailableWithOwnerAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    apply(snapshot(item), false);
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Re-reads the owner's items after the change commits: renamed owners show up in results, and the items
+     * of a deleted owner leave the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUserChanged(UserChangedEvent event) {
+        List<Item> items = itemRepository.findAvailableWithOwnerByOwnerId(event.getUserId()).stream()
+                .map(InMemoryItemSearchEngine::snapshot)
+                .collect(Collectors.toList());
+        lock.writeLock().lock();
+        try {
+            List<Long> owned = documents.values().stream()
+                    .filter(item -> item.getOwner() != null && event.getUserId().equals(item.getOwner().getId()))
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            for (Long itemId : owned) {
+                markChanged(itemId);
+                remove(itemId);
+            }
+            for (Item item : items) {
+                apply(item, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+        long skip = pageable.getOffset();
+        List<Item> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            LongPostingList candidates = candidates(query);
+            for (int i = 0; i < candidates.size() && result.size() < pageable.getPageSize(); i++) {
+                Item item = documents.get(candidates.get(i));
+                if (!matches(item, query)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(item);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Takes the snapshot right away, while lazy associations can still load, and applies it once the transaction commits.
+     */
+    @Override
+    public void index(Item item) {
+        Item snapshot = snapshot(item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(snapshot, true);
+                }
+            });
+        } else {
+            apply(snapshot, true);
+        }
+    }
+
+    /**
+     * @param live a change just committed, as opposed to a copy read by the rebuild
+     */
+    private void apply(Item item, boolean live) {
+        lock.writeLock().lock();
+        try {
+            if (live) {
+                markChanged(item.getId());
+            } else if (changedDuringRebuild.contains(item.getId())) {
+                return;
+            }
+            remove(item.getId());
+            if (item.isAvailable()) {
+                documents.put(item.getId(), item);
+                allIds.add(item.getId());
+                for (String gram : grams(item)) {
+                    postings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChanged(Long itemId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(itemId);
+        }
+    }
+
+    private void remove(Long itemId) {
+        Item previous = documents.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        allIds.remove(previous.getId());
+        for (String gram : grams(previous)) {
+            LongPostingList list = postings.get(gram);
+            list.remove(previous.getId());
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private LongPostingList candidates(String query) {
+        if (query.length() < GRAM) {
+            return allIds;
+        }
+        List<LongPostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            LongPostingList list = postings.get(query.substring(i, i + GRAM));
+            if (list == null) {
+                return new LongPostingList();
+            }
+            lists.add(list);
+        }
+        return LongPostingList.intersect(lists);
+    }
+
+    private static boolean matches(Item item, String query) {
+        return item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    private static Set<String> grams(Item item) {
+        Set<String> grams = new HashSet<>();
+        addGrams(grams, item.getName().toLowerCase(Locale.ROOT));
+        addGrams(grams, item.getDescription().toLowerCase(Locale.ROOT));
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String text) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    private static Item snapshot(Item item) {
+        User owner = item.getOwner();
+        ItemRequest request = null;
+        if (item.getRequest() != null) {
+            request = new ItemRequest();
+            request.setId(item.getRequest().getId());
+        }
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                owner != null ? new User(owner.getId(), owner.getName(), owner.getEmail()) : null, request);
+    }
+}
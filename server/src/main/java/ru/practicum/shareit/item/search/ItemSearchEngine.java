@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Search backend behind {@code ItemService.searchItems}, selected with the {@code shareit.search.engine} property.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Returns the page of available items whose name or description contains the text, most relevant first.
+     */
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Called after an item is saved. Engines backed by database indexes need nothing here.
+     */
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted set of item ids backed by a plain long[]; ids usually arrive in ascending order, so adds are appends.
+ */
+class LongPostingList {
+
+    private long[] ids = new long[4];
+
+    private int size;
+
+    boolean add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertion = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+        ids[insertion] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Walks the shortest list and probes the others, so the cost follows the rarest trigram of the query.
+     */
+    static LongPostingList intersect(List<LongPostingList> lists) {
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+        LongPostingList shortest = lists.get(0);
+        LongPostingList result = new LongPostingList();
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Postgres search over the pg_trgm GIN indexes from schema-postgresql.sql, ranked by trigram similarity.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+
+    ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> itemIds = itemRepository.searchItemIdsByTrigram(text, pageable).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDtoWithDate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+/**
+ * Assembled item cards by item id. Cards are shared between callers and must not be modified.
+ * The base view has no bookings; the owner view adds the last/next bookings and expires when the next booking starts.
+ * Entries are evicted after commit of any change announced by {@link ItemChangedEvent} or {@link UserChangedEvent}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemCardCache implements MeterBinder {
+
+    Clock clock;
+
+    Cache<Long, ItemDtoWithDate> cards;
+
+    Cache<Long, ItemDtoWithDate> ownerCards;
+
+    public ItemCardCache(Clock clock,
+                         @Value("${shareit.cache.items.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.cache.items.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.clock = clock;
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.ownerCards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilNextBooking(expireAfterWrite))
+                .recordStats()
+                .build();
+    }
+
+    public ItemDtoWithDate get(Long itemId, Function<Long, ItemDtoWithDate> loader) {
+        return cards.get(itemId, loader);
+    }
+
+    public ItemDtoWithDate getOwnerView(Long itemId, Function<Long, ItemDtoWithDate> loader) {
+        return ownerCards.get(itemId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        cards.invalidate(event.getItemId());
+        ownerCards.invalidate(event.getItemId());
+    }
+
+    /**
+     * Owner and comment author names are part of the card, and there is no index from users to cards.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cards.invalidateAll();
+        ownerCards.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cards, "item-cards");
+        CaffeineCacheMetrics.monitor(registry, ownerCards, "item-owner-cards");
+    }
+
+    private class UntilNextBooking implements Expiry<Long, ItemDtoWithDate> {
+
+        private final Duration maximum;
+
+        UntilNextBooking(Duration expireAfterWrite) {
+            this.maximum = expireAfterWrite;
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemDtoWithDate card, long currentTime) {
+            if (card.getNextBooking() == null) {
+                return maximum.toNanos();
+            }
+            LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
+            Duration untilNext = Duration.between(now, card.getNextBooking().getStart());
+            if (untilNext.isNegative()) {
+                return 0;
+            }
+            return untilNext.compareTo(maximum) < 0 ? untilNext.toNanos() : maximum.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemDtoWithDate card, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, card, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemDtoWithDate card, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithDate;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,9 +19,19 @@ public interface ItemService {
 
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
+    /**
+     * Free periods of the item between {@code from} and {@code to}; waiting and approved bookings take time.
+     */
+    List<PeriodDto> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<ItemDto> searchItems(Long userId, String text, Integer from, Integer size);
 
     Item findItem(Long itemId);
 
+    /**
+     * Same as {@link #findItem(Long)}, but keeps the item row locked until the calling transaction ends.
+     */
+    Item lockItem(Long itemId);
+
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
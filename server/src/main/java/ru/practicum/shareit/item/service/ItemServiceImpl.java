@@ -4,13 +4,16 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntervals;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
@@ -19,12 +22,14 @@ import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithDate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
@@ -37,8 +42,12 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -62,10 +71,15 @@ public class ItemServiceImpl implements ItemService {
 
     RequestRepository requestRepository;
 
+    ItemSearchEngine itemSearchEngine;
+
+    ItemCardCache itemCardCache;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
-        User owner = UserMapper.toUser(userService.findUserById(userId));
-        itemDto.setOwner(UserMapper.toUserDto(owner));
+        User owner = userService.getUserReference(userId);
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
             ItemRequestDto requestDto = requestService.findItemRequestById(userId, itemDto.getRequestId());
@@ -73,35 +87,46 @@ public class ItemServiceImpl implements ItemService {
             request = requestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new RequestNotFoundException(String.format("Request %s not found.", itemDto.getRequestId())));
         }
-        Item item = ItemMapper.toItem(itemDto);
-        item.setRequest(request);
+        Item item = ItemMapper.toItem(itemDto, owner, request);
         itemRepository.save(item);
+        itemSearchEngine.index(item);
         return ItemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDtoWithDate> getItemsByUser(Long userId, Integer from, Integer size) {
-        User owner = UserMapper.toUser(userService.findUserById(userId));
+        User owner = userService.getUserReference(userId);
 
         int pageNumber = (int) Math.ceil((double) from / size);
         Pageable pageable = PageRequest.of(pageNumber, size);
 
-        return itemRepository.findByOwner(owner, pageable).stream()
+        List<Item> items = itemRepository.findByOwner(owner, pageable).getContent();
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findLastAndNextBookingsByItemIds(itemIds, now).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        return items.stream()
                 .map(ItemMapper::toItemDtoWithDate)
                 .peek(itemDto -> {
-                    List<Booking> bookings = bookingRepository.findBookingByItemIdOrderByStartAsc(itemDto.getId());
-                    LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
-                    BookingRequestDto lastBooking = null;
-                    BookingRequestDto nextBooking = null;
-
-                    for (Booking booking : bookings) {
-                        if (booking.getEnd().isBefore(now)) {
-                            lastBooking = BookingMapper.toBookingRequestDto(booking);
-                        } else if (booking.getStart().isAfter(now)) {
-                            nextBooking = BookingMapper.toBookingRequestDto(booking);
-                            break;
-                        }
-                    }
+                    List<Booking> bookings = bookingsByItem.getOrDefault(itemDto.getId(), Collections.emptyList());
+                    BookingRequestDto lastBooking = bookings.stream()
+                            .filter(booking -> booking.getEnd().isBefore(now))
+                            .max(Comparator.comparing(Booking::getId))
+                            .map(BookingMapper::toBookingRequestDto)
+                            .orElse(null);
+                    BookingRequestDto nextBooking = bookings.stream()
+                            .filter(booking -> booking.getStart().isAfter(now))
+                            .min(Comparator.comparing(Booking::getId))
+                            .map(BookingMapper::toBookingRequestDto)
+                            .orElse(null);
 
                     itemDto.setLastBooking(lastBooking);
                     itemDto.setNextBooking(nextBooking);
@@ -112,9 +137,9 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        User owner = UserMapper.toUser(userService.findUserById(userId));
+        userService.checkUserExists(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundItemException(String.format("Item %s not found.", itemId)));
-        if (!item.getOwner().equals(owner)) {
+        if (!item.getOwner().getId().equals(userId)) {
             throw new NotFoundItemException(String.format("Item %s not found.", itemId));
         }
         String name = itemDto.getName();
@@ -130,54 +155,99 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(available);
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return ItemMapper.toItemDto(item);
     }
 
+    /**
+     * Not read-only on purpose: a read-only transaction goes to the replica, and a card loaded from a lagging
+     * replica right after an eviction would be cached until it expires. Cache hits do not reach the database.
+     */
     @Override
     public ItemDtoWithDate findItemById(Long userId, Long itemId) {
-        userService.findUserById(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundItemException(String.format("Item %s not found.", itemId)));
-
-        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
-        BookingRequestDto lastBooking = bookingRepository.findTopByItemOwnerIdAndStatusAndStartBeforeOrderByEndDesc(userId, Status.APPROVED, now)
-                .map(BookingMapper::toBookingRequestDto)
-                .orElse(null);
-
-        BookingRequestDto nextBooking = bookingRepository.findTopByItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(userId, Status.APPROVED, now)
-                .map(BookingMapper::toBookingRequestDto)
-                .orElse(null);
-
-        List<CommentDto> comments = commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
-        ItemDtoWithDate itemDtoWithDate = ItemMapper.toItemDtoWithDate(item);
-        itemDtoWithDate.setLastBooking(lastBooking);
-        itemDtoWithDate.setNextBooking(nextBooking);
-        itemDtoWithDate.setComments(comments);
+        userService.checkUserExists(userId);
+        ItemDtoWithDate card = itemCardCache.get(itemId, this::loadCard);
+        if (!card.getOwner().getId().equals(userId)) {
+            return card;
+        }
+        return itemCardCache.getOwnerView(itemId, id -> withBookings(card));
+    }
 
-        return itemDtoWithDate;
+    @Override
+    @Transactional(readOnly = true)
+    public List<PeriodDto> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        userService.checkUserExists(userId);
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Wrong period.");
+        }
+        Item item = findItem(itemId);
+        if (!item.isAvailable()) {
+            return new ArrayList<>();
+        }
+        return BookingIntervals.of(bookingRepository.findPeriods(itemId, Status.ACTIVE, from, to)).free(from, to);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchItems(Long userId, String text, Integer from, Integer size) {
-        userService.findUserById(userId);
+        userService.checkUserExists(userId);
 
         int pageNumber = (int) Math.ceil((double) from / size);
         Pageable pageable = PageRequest.of(pageNumber, size);
 
-        return itemRepository.searchItems(text, pageable)
+        return itemSearchEngine.search(text, pageable)
                 .stream()
-                .filter(Item::isAvailable)
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    private ItemDtoWithDate loadCard(Long itemId) {
+        List<Object[]> rows = itemRepository.findItemCard(itemId);
+        if (rows.isEmpty()) {
+            throw new NotFoundItemException(String.format("Item %s not found.", itemId));
+        }
+        Item item = (Item) rows.get(0)[0];
+        List<CommentDto> comments = rows.stream()
+                .map(row -> (Comment) row[1])
+                .filter(Objects::nonNull)
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+
+        ItemDtoWithDate card = ItemMapper.toItemDtoWithDate(item);
+        card.setComments(comments);
+        return card;
+    }
+
+    private ItemDtoWithDate withBookings(ItemDtoWithDate card) {
+        LocalDateTime now = LocalDateTime.now(clock.withZone(ZoneId.systemDefault()));
+        List<Booking> bookings = bookingRepository.findLastAndNextBookingsByItemId(card.getId(), Status.APPROVED, now);
+        BookingRequestDto lastBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isBefore(now))
+                .max(Comparator.comparing(Booking::getId))
+                .map(BookingMapper::toBookingRequestDto)
+                .orElse(null);
+        BookingRequestDto nextBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .min(Comparator.comparing(Booking::getId))
+                .map(BookingMapper::toBookingRequestDto)
+                .orElse(null);
+
+        return new ItemDtoWithDate(card.getId(), card.getName(), card.getDescription(), card.getAvailable(),
+                card.getOwner(), card.getRequest(), lastBooking, nextBooking, card.getComments());
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Item findItem(Long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() -> new NotFoundItemException(String.format("Item %s not found.", itemId)));
     }
 
+    @Override
+    public Item lockItem(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId).orElseThrow(() -> new NotFoundItemException(String.format("Item %s not found.", itemId)));
+    }
+
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         UserDto author = userService.findUserById(userId);
@@ -195,6 +265,7 @@ public class ItemServiceImpl implements ItemService {
         commentDto.setAuthorName(author.getName());
         commentDto.setCreated(LocalDateTime.now());
         Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, UserMapper.toUser(author)));
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return CommentMapper.toCommentDto(comment);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -10,12 +11,14 @@ import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdOrderByCreatedAsc(Long userId);
 
     List<ItemRequest> findByRequesterIdNot(Long userId);
 
     Page<ItemRequest> findAll(Pageable pageable);
 
-    Page<ItemRequest> findByRequesterIdNot(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = "requester")
+    List<ItemRequest> findByRequesterIdNot(Long userId, Pageable pageable);
 }
 
@@ -22,7 +22,10 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,44 +54,47 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllOwnRequests(Long userId) {
-        userService.findUserById(userId);
-        return requestRepository.findAllByRequesterIdOrderByCreatedAsc(userId).stream()
+        userService.checkUserExists(userId);
+        List<ItemRequestDto> requests = requestRepository.findAllByRequesterIdOrderByCreatedAsc(userId).stream()
                 .map(RequestMapper::toItemRequestDto)
-                .peek(request -> {
-                    List<ItemDto> items = itemRepository.findAllByRequestId(request.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    request.setItems(items);
-                })
                 .collect(Collectors.toList());
+        return attachItems(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllOthersRequests(Long userId, Integer from, Integer size) {
         int pageNumber = (int) Math.ceil((double) from / size);
         Pageable pageable = PageRequest.of(pageNumber, size);
 
-        return requestRepository.findByRequesterIdNot(userId, pageable).stream()
+        List<ItemRequestDto> requests = requestRepository.findByRequesterIdNot(userId, pageable).stream()
                 .map(RequestMapper::toItemRequestDto)
-                .peek(request -> {
-                    List<ItemDto> items = itemRepository.findAllByRequestId(request.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    request.setItems(items);
-                })
                 .collect(Collectors.toList());
+        return attachItems(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto findItemRequestById(Long userId, Long requestId) {
-        userService.findUserById(userId);
+        userService.checkUserExists(userId);
         ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(requestRepository.findById(requestId)
                 .orElseThrow(() -> new RequestNotFoundException(String.format("Request %s not found.", requestId))));
-        List<ItemDto> listItemDto = itemRepository.findAllByRequestId(requestId).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-        itemRequestDto.setItems(listItemDto);
-        return itemRequestDto;
+        return attachItems(List.of(itemRequestDto)).get(0);
+    }
+
+    private List<ItemRequestDto> attachItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        Set<Long> requestIds = requests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        requests.forEach(request -> request.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>())));
+        return requests;
     }
 }
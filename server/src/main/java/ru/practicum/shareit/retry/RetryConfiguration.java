@@ -0,0 +1,12 @@
+package ru.practicum.shareit.retry;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Retry advice wraps the transactional proxy, so every {@code @Retryable} attempt runs in a fresh transaction.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfiguration {
+}
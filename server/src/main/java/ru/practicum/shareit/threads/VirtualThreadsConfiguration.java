@@ -0,0 +1,43 @@
+package ru.practicum.shareit.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Enabled by {@code shareit.threads.virtual=true}: every request runs on its own virtual thread instead of
+ * Tomcat's bounded worker pool. Request concurrency is then no longer capped by {@code server.tomcat.threads.max},
+ * so the Hikari pool becomes the only limit on concurrent JDBC work; requests beyond it wait up to
+ * {@code connection-timeout} for a connection. Keep the pool sized for the database, not for the number of requests.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.newExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logPoolLimits(ApplicationReadyEvent event) {
+        ObjectProvider<HikariDataSource> pools = event.getApplicationContext().getBeanProvider(HikariDataSource.class);
+        pools.forEach(pool -> log.info("Requests run on virtual threads; pool {} allows {} concurrent JDBC calls, "
+                        + "the rest wait up to {} ms for a connection.",
+                pool.getPoolName(), pool.getMaximumPoolSize(), pool.getConnectionTimeout()));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Published when a user is updated or deleted.
+ */
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserChangedEvent {
+    Long userId;
+}
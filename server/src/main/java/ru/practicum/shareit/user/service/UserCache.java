@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of users by id in front of the X-Sharer-User-Id lookups.
+ * Hit, miss and eviction counters are published as the "cache.*" meters of the "users" cache.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserCache implements MeterBinder {
+
+    Cache<Long, UserDto> cache;
+
+    public UserCache(@Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.cache.users.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a copy of the cached user, so callers are free to modify it.
+     */
+    public UserDto get(Long userId, Function<Long, UserDto> loader) {
+        UserDto user = cache.get(userId, loader);
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public boolean contains(Long userId) {
+        return cache.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Evicts the user now and once more after commit, so a read racing with the transaction can't keep the old row.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -14,5 +15,9 @@ public interface UserService {
 
     UserDto findUserById(Long userId);
 
+    void checkUserExists(Long userId);
+
+    User getUserReference(Long userId);
+
     void deleteUser(Long userId);
 }
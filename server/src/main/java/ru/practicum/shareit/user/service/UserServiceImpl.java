@@ -3,11 +3,13 @@ package ru.practicum.shareit.user.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundUserException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -25,7 +27,12 @@ public class UserServiceImpl implements UserService {
 
     UserRepository userRepository;
 
+    UserCache userCache;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getUsers() {
         return userRepository.findAll().stream()
                 .map(UserMapper::toUserDto)
@@ -57,18 +64,40 @@ public class UserServiceImpl implements UserService {
             user.setEmail(email);
         }
         user = userRepository.save(user);
+        userCache.invalidate(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         return UserMapper.toUserDto(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto findUserById(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundUserException(String.format("User %s not found", userId)));
-        return UserMapper.toUserDto(user);
+        return userCache.get(userId, id -> {
+            User user = userRepository.findById(id).orElseThrow(() -> new NotFoundUserException(String.format("User %s not found", id)));
+            return UserMapper.toUserDto(user);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkUserExists(Long userId) {
+        if (!userCache.contains(userId) && !userRepository.existsById(userId)) {
+            throw new NotFoundUserException(String.format("User %s not found", userId));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User getUserReference(Long userId) {
+        checkUserExists(userId);
+        return userRepository.getReferenceById(userId);
     }
 
     @Override
     public void deleteUser(Long userId) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundUserException(String.format("User %s not found", userId)));
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 }
@@ -0,0 +1,35 @@
+-- Partial indexes, v1. WAITING and REJECTED bookings are a small share of the table,
+-- so the state filters of the booker and owner listings read them from dedicated indexes.
+CREATE INDEX IF NOT EXISTS bookings_waiting_booker_id_start_date_idx ON bookings (booker_id, start_date DESC) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_waiting_item_id_start_date_idx ON bookings (item_id, start_date DESC) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_rejected_booker_id_start_date_idx ON bookings (booker_id, start_date DESC) WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS bookings_rejected_item_id_start_date_idx ON bookings (item_id, start_date DESC) WHERE status = 'REJECTED';
+
+-- Trigram indexes, v2. TrigramItemSearchEngine matches name and description of available items
+-- with ILIKE '%text%' and ranks by similarity(); gin_trgm_ops serves both, and Postgres keeps them
+-- current on every insert/update. v1 indexed unavailable items too and is dropped.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP INDEX IF EXISTS items_name_trgm_idx;
+
+DROP INDEX IF EXISTS items_description_trgm_idx;
+
+CREATE INDEX IF NOT EXISTS items_available_name_trgm_idx ON items USING gin (name gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS items_available_description_trgm_idx ON items USING gin (description gin_trgm_ops) WHERE is_available;
+
+-- Booking overlap, v1. WAITING and APPROVED bookings of one item may not share any instant;
+-- BookingServiceImpl checks this under an item row lock, the constraint is the last line of defence.
+-- Postgres has no ADD CONSTRAINT IF NOT EXISTS, hence the DO block.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO 'BEGIN
+    ALTER TABLE bookings ADD CONSTRAINT bookings_item_id_period_excl
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN (''WAITING'', ''APPROVED''));
+EXCEPTION
+    WHEN duplicate_table OR duplicate_object THEN NULL;
+END';
@@ -43,3 +43,23 @@ created TIMESTAMP WITHOUT TIME ZONE,
 FOREIGN KEY (item_id) REFERENCES items(id),
 FOREIGN KEY (author_id) REFERENCES users(id)
 );
+
+-- Optimistic locking, v1. Booking.version guards concurrent status changes;
+-- added separately so that existing bookings tables get it too.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- Indexes, v1. Each one follows a query in BookingRepository, ItemRepository,
+-- CommentRepository or RequestRepository; platform specific ones live in schema-<platform>.sql.
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_idx ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_start_date_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_id_author_id_idx ON comments (item_id, author_id);
+
+CREATE INDEX IF NOT EXISTS requests_requester_id_created_idx ON requests (requester_id, created);
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.PeriodDto;
+import ru.practicum.shareit.booking.model.BookingIntervals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalsTest {
+
+    static final LocalDateTime T = LocalDateTime.parse("2023-06-01T00:00:00");
+
+    @Test
+    void free_WithoutBookings_WholeWindow() {
+        //Тестируем.
+        List<PeriodDto> result = BookingIntervals.of(List.of()).free(T, T.plusDays(1));
+
+        //Проверяем.
+        assertEquals(List.of(new PeriodDto(T, T.plusDays(1))), result);
+    }
+
+    @Test
+    void free_MergesOverlappingAndAdjacentBookings() {
+        //Создаем сущности.
+        BookingIntervals intervals = BookingIntervals.of(List.of(
+                new PeriodDto(T.plusHours(5), T.plusHours(6)),
+                new PeriodDto(T.plusHours(1), T.plusHours(3)),
+                new PeriodDto(T.plusHours(2), T.plusHours(4)),
+                new PeriodDto(T.plusHours(4), T.plusHours(5))));
+
+        //Тестируем.
+        List<PeriodDto> result = intervals.free(T, T.plusHours(8));
+
+        //Проверяем.
+        assertEquals(List.of(new PeriodDto(T, T.plusHours(1)), new PeriodDto(T.plusHours(6), T.plusHours(8))), result);
+    }
+
+    @Test
+    void free_BookingsCrossingWindowBounds() {
+        //Создаем сущности.
+        BookingIntervals intervals = BookingIntervals.of(List.of(
+                new PeriodDto(T.minusHours(2), T.plusHours(1)),
+                new PeriodDto(T.plusHours(7), T.plusHours(12))));
+
+        //Тестируем.
+        List<PeriodDto> result = intervals.free(T, T.plusHours(8));
+
+        //Проверяем.
+        assertEquals(List.of(new PeriodDto(T.plusHours(1), T.plusHours(7))), result);
+    }
+
+    @Test
+    void free_FullyBooked_Empty() {
+        //Тестируем и проверяем.
+        assertTrue(BookingIntervals.of(List.of(new PeriodDto(T.minusDays(1), T.plusDays(2)))).free(T, T.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void free_ThousandsOfBookings() {
+        //Создаем сущности.
+        List<PeriodDto> periods = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            periods.add(new PeriodDto(T.plusHours(2L * i), T.plusHours(2L * i + 1)));
+        }
+        BookingIntervals intervals = BookingIntervals.of(periods);
+
+        //Тестируем.
+        List<PeriodDto> result = intervals.free(T.plusHours(4000), T.plusHours(4006));
+
+        //Проверяем.
+        assertEquals(List.of(
+                new PeriodDto(T.plusHours(4001), T.plusHours(4002)),
+                new PeriodDto(T.plusHours(4003), T.plusHours(4004)),
+                new PeriodDto(T.plusHours(4005), T.plusHours(4006))), result);
+    }
+}
@@ -11,15 +11,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -99,6 +102,73 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].status").value("WAITING"));
     }
 
+    @Test
+    void getAllBookingsWithState_ByCursor() throws Exception {
+        Long userId = 1L;
+        String state = "ALL";
+        Integer size = 2;
+        UserDto booker = new UserDto();
+        booker.setId(userId);
+        ItemDto item = new ItemDto();
+        BookingCursor cursor = new BookingCursor(LocalDateTime.parse("2023-06-10T12:00:00"), 5L);
+        List<BookingDto> bookingList = Arrays.asList(
+                new BookingDto(4L, null, null, booker, item, "WAITING"),
+                new BookingDto(3L, LocalDateTime.parse("2023-06-01T12:00:00"), null, booker, item, "WAITING"));
+
+        when(bookingService.getAllBookingsWithStateByCursor(userId, state, cursor, size)).thenReturn(bookingList);
+
+        mockMvc.perform(get("/bookings")
+                        .header(header, userId)
+                        .param("state", state)
+                        .param("size", size.toString())
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        new BookingCursor(LocalDateTime.parse("2023-06-01T12:00:00"), 3L).encode()))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].id").value(3));
+    }
+
+    @Test
+    void getAllBookingByOwner_ByCursor_LastPage() throws Exception {
+        Long userId = 1L;
+        String state = "ALL";
+        Integer size = 10;
+        UserDto booker = new UserDto();
+        booker.setId(userId);
+        List<BookingDto> bookingList = List.of(new BookingDto(1L, null, null, booker, new ItemDto(), "WAITING"));
+
+        when(bookingService.getBookingByOwnerByCursor(userId, state, null, size)).thenReturn(bookingList);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(header, userId)
+                        .param("state", state)
+                        .param("size", size.toString())
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void getAllBookingByOwner_ByCursor_WithoutSize() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(header, 1L)
+                        .param("cursor", ""))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getAllBookingsWithState_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(header, 1L)
+                        .param("size", "10")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void findBookingById() throws Exception {
         Long userId = 1L;
@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.item.dto.ItemDtoWithDate;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -86,6 +88,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("Fork"));
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        Long userId = 1L;
+        LocalDateTime from = LocalDateTime.parse("2023-06-01T12:00:00");
+        LocalDateTime to = LocalDateTime.parse("2023-06-03T12:00:00");
+        List<PeriodDto> free = List.of(new PeriodDto(from, from.plusDays(1)));
+
+        when(itemService.getAvailability(userId, 1L, from, to)).thenReturn(free);
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header(header, userId)
+                        .param("from", "2023-06-01T12:00:00")
+                        .param("to", "2023-06-03T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].start").value("2023-06-01T12:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2023-06-02T12:00:00"));
+    }
+
     @Test
     void searchItems() throws Exception {
         Long userId = 1L;
@@ -8,8 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.EtagConfiguration;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -25,6 +27,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 
 @WebMvcTest(UserController.class)
+@Import(EtagConfiguration.class)
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 class UserControllerTest {
@@ -61,6 +64,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].name").value("Svetlana"));
     }
 
+    @Test
+    void getUsers_WithMatchingEtag() throws Exception {
+        //Создаем сущности.
+        List<UserDto> users = List.of(new UserDto(1L, "Ivan", "ivan@bik.com"));
+        when(userService.getUsers()).thenReturn(users);
+        String etag = mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        //Тестируем и проверяем.
+        mockMvc.perform(get("/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void addUser() throws Exception {
         UserDto userDto = new UserDto(1L, "Ivan", "ivan@bik.com");
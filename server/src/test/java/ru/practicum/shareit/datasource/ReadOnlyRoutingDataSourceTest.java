@@ -0,0 +1,101 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each knows its own name.
+ */
+class ReadOnlyRoutingDataSourceTest {
+
+    static EmbeddedDatabase primary;
+
+    static EmbeddedDatabase replica;
+
+    static JdbcTemplate jdbcTemplate;
+
+    static DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransaction_GoesToReplica() {
+        //Тестируем.
+        String node = transaction(true).execute(status -> currentNode());
+
+        //Проверяем.
+        assertEquals("replica", node);
+    }
+
+    @Test
+    void itemCardLoads_GoToPrimary() throws Exception {
+        //Тестируем.
+        Transactional transactional = ItemServiceImpl.class.getMethod("findItemById", Long.class, Long.class)
+                .getAnnotation(Transactional.class);
+
+        //Проверяем.
+        assertFalse(transactional != null && transactional.readOnly());
+    }
+
+    @Test
+    void readWriteTransaction_GoesToPrimary() {
+        //Тестируем.
+        String node = transaction(false).execute(status -> currentNode());
+
+        //Проверяем.
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void withoutTransaction_GoesToPrimary() {
+        //Тестируем и проверяем.
+        assertEquals("primary", currentNode());
+    }
+
+    private static EmbeddedDatabase node(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE node (name VARCHAR(16))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction;
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.exception;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -126,4 +127,20 @@ class ErrorHandlerTest {
 
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bookingConflictException_HasResponseStatusConflict() {
+        BookingConflictException ex = new BookingConflictException("Item 1 is already booked for this time.");
+        ResponseEntity<ErrorResponse> responseEntity = errorHandler.handleBookingConflictException(ex);
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
+
+    @Test
+    public void optimisticLockingFailureException_HasResponseStatusConflict() {
+        OptimisticLockingFailureException ex = new OptimisticLockingFailureException("Row was updated by another transaction");
+        ResponseEntity<ErrorResponse> responseEntity = errorHandler.handleOptimisticLockingFailureException(ex);
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
+}
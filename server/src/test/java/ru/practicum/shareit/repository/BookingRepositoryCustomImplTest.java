@@ -0,0 +1,144 @@
+package ru.practicum.shareit.repository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingRepositoryCustomImplTest {
+
+    final LocalDateTime now = LocalDateTime.parse("2023-06-01T12:00:00");
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    User owner;
+    User booker;
+    Booking past;
+    Booking current;
+    Booking secondCurrent;
+    Booking future;
+    Booking rejected;
+
+    @BeforeEach
+    void setUp() {
+        //Создаем сущности.
+        owner = userRepository.save(new User(null, "Svetlana", "sveta@booking.com"));
+        booker = userRepository.save(new User(null, "Ivan", "ivan@booking.com"));
+        Item item = itemRepository.save(new Item(null, "Fork", "Kitchen thing", true, owner, null));
+        past = save(now.minusDays(3), now.minusDays(2), item, Status.APPROVED);
+        current = save(now.minusHours(1), now.plusHours(1), item, Status.APPROVED);
+        secondCurrent = save(now.minusHours(2), now.plusHours(2), item, Status.APPROVED);
+        future = save(now.plusDays(1), now.plusDays(2), item, Status.WAITING);
+        rejected = save(now.plusDays(3), now.plusDays(4), item, Status.REJECTED);
+    }
+
+    @Test
+    void findPage_AllOrderedByStartDesc() {
+        //Тестируем.
+        List<BookingView> result = bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.ALL, now, 0, 10);
+
+        //Проверяем.
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), secondCurrent.getId(), past.getId()), ids(result));
+    }
+
+    @Test
+    void findPage_CurrentOrderedByIdAsc() {
+        //Тестируем.
+        List<BookingView> result = bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, now, 0, 10);
+
+        //Проверяем.
+        assertEquals(List.of(current.getId(), secondCurrent.getId()), ids(result));
+    }
+
+    @Test
+    void findPage_ByStatusAndTime() {
+        //Тестируем и проверяем.
+        assertEquals(List.of(future.getId()),
+                ids(bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.WAITING, now, 0, 10)));
+        assertEquals(List.of(rejected.getId()),
+                ids(bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.REJECTED, now, 0, 10)));
+        assertEquals(List.of(past.getId()),
+                ids(bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.PAST, now, 0, 10)));
+        assertEquals(List.of(rejected.getId(), future.getId()),
+                ids(bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.FUTURE, now, 0, 10)));
+    }
+
+    @Test
+    void findPage_WithOffset() {
+        //Тестируем.
+        List<BookingView> result = bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.ALL, now, 2, 2);
+
+        //Проверяем.
+        assertEquals(List.of(current.getId(), secondCurrent.getId()), ids(result));
+    }
+
+    @Test
+    void findPage_OtherUser_Empty() {
+        //Тестируем и проверяем.
+        assertEquals(List.of(), bookingRepository.findPage(BookingRole.OWNER, booker.getId(), BookingState.ALL, now, 0, 10));
+    }
+
+    @Test
+    void findPage_SelectsViewsWithoutManagedEntities() {
+        //Создаем сущности.
+        entityManager.flush();
+        entityManager.clear();
+
+        //Тестируем.
+        List<BookingView> result = bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.PAST, now, 0, 10);
+
+        //Проверяем.
+        assertEquals(1, result.size());
+        BookingView view = result.get(0);
+        assertEquals(past.getStart(), view.getStart());
+        assertEquals(Status.APPROVED, view.getStatus());
+        assertEquals("Ivan", view.getBookerName());
+        assertEquals("Fork", view.getItemName());
+        assertEquals("sveta@booking.com", view.getOwnerEmail());
+        assertNull(view.getRequestId());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, Item item, Status status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private List<Long> ids(List<BookingView> bookings) {
+        return bookings.stream().map(BookingView::getId).collect(Collectors.toList());
+    }
+}
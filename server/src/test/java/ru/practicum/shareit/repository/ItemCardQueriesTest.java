@@ -0,0 +1,234 @@
+package ru.practicum.shareit.repository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The item card queries against H2, with the statements they issue counted by Hibernate statistics,
+ * and the owner card compared with the way it was assembled before them.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ItemCardQueriesTest {
+
+    final LocalDateTime now = LocalDateTime.parse("2023-06-01T12:00:00");
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    TransactionTemplate transaction;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findItemCard_WithoutComments_ReturnsSingleRow() {
+        //Создаем сущности.
+        Item item = saveItem("nocomments");
+        statistics.clear();
+
+        //Тестируем.
+        List<Object[]> rows = transaction.execute(status -> itemRepository.findItemCard(item.getId()));
+
+        //Проверяем.
+        assertEquals(1, rows.size());
+        assertEquals(item.getId(), ((Item) rows.get(0)[0]).getId());
+        assertNull(rows.get(0)[1]);
+        assertNull(rows.get(0)[2]);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 1000})
+    void findItemCard_WithComments_OneStatement(int commentCount) {
+        //Создаем сущности.
+        Item item = saveItem("comments" + commentCount);
+        List<Long> commentIds = transaction.execute(status -> {
+            User author = userRepository.save(new User(null, "Ivan", "ivan" + commentCount + "@card.com"));
+            List<Comment> comments = new ArrayList<>();
+            for (int i = 0; i < commentCount; i++) {
+                comments.add(new Comment(null, "Comment " + i, item, author, now));
+            }
+            return commentRepository.saveAll(comments).stream().map(Comment::getId).collect(Collectors.toList());
+        });
+        statistics.clear();
+
+        //Тестируем.
+        List<String> card = transaction.execute(status -> itemRepository.findItemCard(item.getId()).stream()
+                .map(row -> ((Item) row[0]).getOwner().getName() + " " + ((Comment) row[1]).getId() + " "
+                        + ((Comment) row[1]).getAuthor().getName())
+                .collect(Collectors.toList()));
+
+        //Проверяем.
+        assertEquals(commentIds.stream().map(id -> "Svetlana " + id + " Ivan").collect(Collectors.toList()), card);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 1000})
+    void ownerCard_PreviousAndCurrentPath_Statements(int commentCount) {
+        //Создаем сущности.
+        Item item = saveItem("paths" + commentCount);
+        User booker = userRepository.save(new User(null, "Ivan", "ivan-paths" + commentCount + "@card.com"));
+        saveBooking(now.minusDays(1), item, booker, Status.APPROVED);
+        saveBooking(now.plusDays(1), item, booker, Status.APPROVED);
+        transaction.executeWithoutResult(status -> {
+            List<Comment> comments = new ArrayList<>();
+            for (int i = 0; i < commentCount; i++) {
+                User author = userRepository.save(new User(null, "Author " + i, "author" + i + "-" + commentCount + "@card.com"));
+                comments.add(new Comment(null, "Comment " + i, item, author, now));
+            }
+            commentRepository.saveAll(comments);
+        });
+
+        //Тестируем.
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<String> previous = transaction.execute(status -> previousOwnerCard(item.getId()));
+        long previousStatements = statistics.getPrepareStatementCount();
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<String> current = transaction.execute(status -> currentOwnerCard(item.getId()));
+        long currentStatements = statistics.getPrepareStatementCount();
+
+        //Проверяем.
+        assertEquals(previous, current);
+        assertEquals(commentCount + 5, previousStatements);
+        assertEquals(2, currentStatements);
+    }
+
+    @Test
+    void findLastAndNextBookingsByItemId_KeepsTiesAndSkipsOtherStatuses() {
+        //Создаем сущности.
+        Item item = saveItem("bookings");
+        User booker = userRepository.save(new User(null, "Ivan", "ivan@bookings.com"));
+        saveBooking(now.minusDays(3), item, booker, Status.APPROVED);
+        Booking last = saveBooking(now.minusDays(1), item, booker, Status.APPROVED);
+        Booking sameStart = saveBooking(now.minusDays(1), item, booker, Status.APPROVED);
+        saveBooking(now.minusHours(1), item, booker, Status.REJECTED);
+        saveBooking(now.plusHours(12), item, booker, Status.WAITING);
+        Booking next = saveBooking(now.plusDays(1), item, booker, Status.APPROVED);
+        saveBooking(now.plusDays(2), item, booker, Status.APPROVED);
+        statistics.clear();
+
+        //Тестируем.
+        Set<Long> result = transaction.execute(status -> bookingRepository
+                .findLastAndNextBookingsByItemId(item.getId(), Status.APPROVED, now).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet()));
+
+        //Проверяем.
+        assertEquals(Set.of(last.getId(), sameStart.getId(), next.getId()), result);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * The owner card as findItemById assembled it before findItemCard: the item, its lazy owner, two top-1 booking
+     * lookups, the comments and a lazy author per comment.
+     */
+    private List<String> previousOwnerCard(Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        List<String> card = new ArrayList<>();
+        card.add(item.getOwner().getName());
+        card.add(topBookingId(itemId, "b.start < :now ORDER BY b.start DESC"));
+        card.add(topBookingId(itemId, "b.start > :now ORDER BY b.start"));
+        commentRepository.findAllByItemId(itemId).stream()
+                .sorted(Comparator.comparing(Comment::getId))
+                .forEach(comment -> card.add(comment.getId() + " " + comment.getAuthor().getName()));
+        return card;
+    }
+
+    private List<String> currentOwnerCard(Long itemId) {
+        List<Object[]> rows = itemRepository.findItemCard(itemId);
+        List<Booking> bookings = bookingRepository.findLastAndNextBookingsByItemId(itemId, Status.APPROVED, now);
+        List<String> card = new ArrayList<>();
+        card.add(((Item) rows.get(0)[0]).getOwner().getName());
+        card.add(bookings.stream().filter(booking -> booking.getStart().isBefore(now)).findFirst().map(booking -> booking.getId().toString()).orElse(null));
+        card.add(bookings.stream().filter(booking -> booking.getStart().isAfter(now)).findFirst().map(booking -> booking.getId().toString()).orElse(null));
+        rows.forEach(row -> card.add(((Comment) row[1]).getId() + " " + ((User) row[2]).getName()));
+        return card;
+    }
+
+    private String topBookingId(Long itemId, String condition) {
+        return entityManager.createQuery("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = :status AND " + condition, Booking.class)
+                .setParameter("itemId", itemId)
+                .setParameter("status", Status.APPROVED)
+                .setParameter("now", now)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .map(booking -> booking.getId().toString())
+                .orElse(null);
+    }
+
+    private Item saveItem(String suffix) {
+        return transaction.execute(status -> {
+            User owner = userRepository.save(new User(null, "Svetlana", "sveta-" + suffix + "@card.com"));
+            return itemRepository.save(new Item(null, "Fork", "Kitchen thing", true, owner, null));
+        });
+    }
+
+    private Booking saveBooking(LocalDateTime start, Item item, User booker, Status status) {
+        return bookingRepository.save(new Booking(null, start, start.plusHours(2), item, booker, status));
+    }
+}
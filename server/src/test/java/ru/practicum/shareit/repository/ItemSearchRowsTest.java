@@ -0,0 +1,121 @@
+package ru.practicum.shareit.repository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.LikeItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows a search transfers to fill one page of available items, counted by Hibernate statistics: the
+ * availability filter inside the query against the previous filter in the service, applied after paging.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LikeItemSearchEngine.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ItemSearchRowsTest {
+
+    static final int ITEMS = 100;
+
+    static final int SIZE = 10;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    LikeItemSearchEngine searchEngine;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 1, 10", "50, 2, 20", "90, 10, 100"})
+    void search_RowsForFullPage(int unavailablePercent, long filteredAfterPagingQueries, long filteredAfterPagingRows) {
+        //Создаем сущности.
+        User owner = userRepository.save(new User(null, "Ivan", "ivan@rows.com"));
+        for (int i = 0; i < ITEMS; i++) {
+            itemRepository.save(new Item(null, "Knife " + i, "Kitchen thing", i % 10 >= unavailablePercent / 10, owner, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        //Тестируем.
+        statistics.clear();
+        List<Item> inQuery = searchEngine.search("knife", PageRequest.of(0, SIZE));
+        long inQueryQueries = statistics.getQueryExecutionCount();
+        long inQueryRows = rowCount();
+
+        entityManager.clear();
+        statistics.clear();
+        List<Item> afterPaging = new ArrayList<>();
+        for (int page = 0; afterPaging.size() < SIZE && page * SIZE < ITEMS; page++) {
+            afterPaging.addAll(searchFilteringAfterPaging("knife", page));
+        }
+        long afterPagingQueries = statistics.getQueryExecutionCount();
+        long afterPagingRows = rowCount();
+
+        //Проверяем.
+        assertEquals(ids(afterPaging.subList(0, SIZE)), ids(inQuery));
+        assertEquals(1, inQueryQueries);
+        assertEquals(SIZE, inQueryRows);
+        assertEquals(filteredAfterPagingQueries, afterPagingQueries);
+        assertEquals(filteredAfterPagingRows, afterPagingRows);
+    }
+
+    /**
+     * The search query and service filter as they were before the availability condition moved into the query.
+     */
+    private List<Item> searchFilteringAfterPaging(String text, int page) {
+        return entityManager.createQuery("SELECT i FROM Item i JOIN FETCH i.owner " +
+                        "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')) " +
+                        "ORDER BY i.id", Item.class)
+                .setParameter("text", text)
+                .setFirstResult(page * SIZE)
+                .setMaxResults(SIZE)
+                .getResultList()
+                .stream()
+                .filter(Item::isAvailable)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Every fetched row hydrates one item; the persistence context is cleared before each measurement.
+     */
+    private long rowCount() {
+        return statistics.getEntityStatistics(Item.class.getName()).getLoadCount();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.repository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.LikeItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LikeItemSearchEngine.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class LikeItemSearchEngineTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    LikeItemSearchEngine searchEngine;
+
+    User owner;
+
+    @BeforeEach
+    void setUp() {
+        //Создаем сущности.
+        owner = userRepository.save(new User(null, "Ivan", "ivan@search.com"));
+    }
+
+    @Test
+    void search_MatchesSubstringOfNameOrDescription() {
+        //Создаем сущности.
+        Item drill = save("Дрель", "Простая дрель", true);
+        Item screwdriver = save("Отвертка", "Аккумуляторная отвертка", true);
+        save("Клей", "Тюбик суперклея", true);
+
+        //Тестируем и проверяем.
+        assertEquals(List.of(drill.getId()), ids(searchEngine.search("рел", PageRequest.of(0, 10))));
+        assertEquals(List.of(screwdriver.getId()), ids(searchEngine.search("аккумулятор", PageRequest.of(0, 10))));
+        assertTrue(searchEngine.search("молоток", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_IgnoresCase() {
+        //Создаем сущности.
+        Item drill = save("Дрель", "Простая дрель", true);
+        Item fork = save("FORK", "kitchen thing", true);
+
+        //Тестируем и проверяем.
+        assertEquals(List.of(drill.getId()), ids(searchEngine.search("дРЕЛЬ", PageRequest.of(0, 10))));
+        assertEquals(List.of(fork.getId()), ids(searchEngine.search("fork", PageRequest.of(0, 10))));
+        assertEquals(List.of(fork.getId()), ids(searchEngine.search("KITCHEN", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void search_WithPages() {
+        //Создаем сущности.
+        List<Long> forks = List.of(save("Fork 1", "Kitchen thing", true).getId(), save("Fork 2", "Kitchen thing", true).getId(),
+                save("Fork 3", "Kitchen thing", true).getId(), save("Fork 4", "Kitchen thing", true).getId(),
+                save("Fork 5", "Kitchen thing", true).getId());
+
+        //Тестируем и проверяем.
+        assertEquals(forks.subList(0, 2), ids(searchEngine.search("fork", PageRequest.of(0, 2))));
+        assertEquals(forks.subList(2, 4), ids(searchEngine.search("fork", PageRequest.of(1, 2))));
+        assertEquals(forks.subList(4, 5), ids(searchEngine.search("fork", PageRequest.of(2, 2))));
+    }
+
+    @Test
+    void search_SkipsUnavailableItemsAndFillsPages() {
+        //Создаем сущности.
+        List<Long> available = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            save("Spoon " + i, "Broken spoon", false);
+            available.add(save("Spoon " + i, "Kitchen thing", true).getId());
+        }
+
+        //Тестируем и проверяем.
+        assertEquals(available.subList(0, 3), ids(searchEngine.search("spoon", PageRequest.of(0, 3))));
+        assertEquals(available.subList(3, 6), ids(searchEngine.search("spoon", PageRequest.of(1, 3))));
+        assertTrue(searchEngine.search("broken", PageRequest.of(0, 3)).isEmpty());
+    }
+
+    private Item save(String name, String description, boolean available) {
+        return itemRepository.save(new Item(null, name, description, available, owner, null));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
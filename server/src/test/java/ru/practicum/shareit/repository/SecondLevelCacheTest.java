@@ -0,0 +1,77 @@
+package ru.practicum.shareit.repository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    RequestRepository requestRepository;
+
+    @Test
+    void repeatReadOfItemWithOwnerAndRequest_IssuesNoSql() {
+        //Создаем сущности.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long itemId = transaction.execute(status -> {
+            User owner = userRepository.save(new User(null, "Svetlana", "sveta@cache.com"));
+            User requester = userRepository.save(new User(null, "Ivan", "ivan@cache.com"));
+            ItemRequest request = requestRepository.save(new ItemRequest(null, "Need fork.", requester, LocalDateTime.now()));
+            return itemRepository.save(new Item(null, "Fork", "Kitchen thing", true, owner, request)).getId();
+        });
+        transaction.execute(status -> readCard(itemId));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //Тестируем.
+        String card = transaction.execute(status -> readCard(itemId));
+
+        //Проверяем.
+        assertEquals("Fork Svetlana Need fork. Ivan", card);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 4);
+    }
+
+    private String readCard(Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        return String.join(" ", item.getName(), item.getOwner().getName(),
+                item.getRequest().getDescription(), item.getRequest().getRequester().getName());
+    }
+}
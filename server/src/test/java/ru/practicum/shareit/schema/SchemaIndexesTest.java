@@ -0,0 +1,121 @@
+package ru.practicum.shareit.schema;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads schema.sql into an in-memory H2 database with some data and checks
+ * the query plans of the repository access paths. The queries have the shape Hibernate generates for them.
+ * The partial indexes in schema-postgresql.sql need Postgres and are not checked here.
+ */
+class SchemaIndexesTest {
+
+    static EmbeddedDatabase database;
+
+    static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("classpath:schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@mail.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            requests.add(new Object[]{"request" + i, i});
+            items.add(new Object[]{"item" + i, "description" + i, true, i, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (description, requester_id, created) VALUES (?, ?, CURRENT_TIMESTAMP)", requests);
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            bookings.add(new Object[]{i, i % 50 + 1, (i + 7) % 50 + 1, i % 3 == 0 ? "WAITING" : "APPROVED"});
+            comments.add(new Object[]{"comment" + i, i % 50 + 1, (i + 7) % 50 + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (DATEADD('HOUR', ?, TIMESTAMP '2023-01-01 00:00:00'), TIMESTAMP '2024-01-01 00:00:00', ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, CURRENT_TIMESTAMP)", comments);
+        // H2 backs every foreign key with an index of its own, Postgres does not; drop them so the plans
+        // can only pick the indexes from schema.sql.
+        jdbcTemplate.query("SELECT table_name, constraint_name FROM information_schema.table_constraints " +
+                "WHERE constraint_type = 'FOREIGN KEY'", (rs, rowNum) -> "ALTER TABLE " + rs.getString(1) + " DROP CONSTRAINT " + rs.getString(2))
+                .forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void bookerListingUsesBookerStartIndex() {
+        assertPlanUses("SELECT id FROM bookings WHERE booker_id = 1 AND start_date > TIMESTAMP '2023-02-01 00:00:00' " +
+                "ORDER BY start_date DESC, id DESC", "BOOKINGS_BOOKER_ID_START_DATE_IDX");
+    }
+
+    @Test
+    void itemBookingsUseItemStartIndex() {
+        assertPlanUses("SELECT id FROM bookings WHERE item_id = 1 AND start_date < TIMESTAMP '2023-02-01 00:00:00'",
+                "BOOKINGS_ITEM_ID_START_DATE_IDX");
+    }
+
+    @Test
+    void overlapProbeUsesItemStatusStartIndex() {
+        assertPlanUses("SELECT b.id FROM bookings b WHERE b.item_id = 1 AND b.status IN ('WAITING', 'APPROVED') " +
+                "AND b.start_date < TIMESTAMP '2023-02-01 00:00:00' AND b.end_date > TIMESTAMP '2023-01-20 00:00:00' " +
+                "LIMIT 1", "BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX");
+    }
+
+    @Test
+    void ownerListingUsesOwnerIndex() {
+        assertPlanUses("SELECT i.id FROM items i LEFT OUTER JOIN users u ON i.owner_id = u.id " +
+                "LEFT OUTER JOIN requests r ON i.request_id = r.id WHERE i.owner_id = 1 ORDER BY i.id LIMIT 10",
+                "ITEMS_OWNER_ID_IDX");
+    }
+
+    @Test
+    void requestItemsUseRequestIndex() {
+        assertPlanUses("SELECT i.id FROM items i INNER JOIN users u ON i.owner_id = u.id WHERE i.request_id IN (1, 2, 3)",
+                "ITEMS_REQUEST_ID_IDX");
+    }
+
+    @Test
+    void authorCommentLookupUsesItemAuthorIndex() {
+        assertPlanUses("SELECT id FROM comments WHERE item_id = 1 AND author_id = 8",
+                "COMMENTS_ITEM_ID_AUTHOR_ID_IDX");
+    }
+
+    @Test
+    void ownRequestsUseRequesterCreatedIndex() {
+        assertPlanUses("SELECT id FROM requests WHERE requester_id = 1 AND created < CURRENT_TIMESTAMP ORDER BY created",
+                "REQUESTS_REQUESTER_ID_CREATED_IDX");
+    }
+
+    private static void assertPlanUses(String query, String index) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+        assertTrue(plan != null && plan.toUpperCase().contains(index), () -> "Expected " + index + " in plan: " + plan);
+    }
+}
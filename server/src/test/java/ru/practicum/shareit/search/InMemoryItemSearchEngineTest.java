@@ -0,0 +1,155 @@
+package ru.practicum.shareit.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    InMemoryItemSearchEngine searchEngine;
+
+    User owner = new User(1L, "Ivan", "ivan@mail.com");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+    }
+
+    @Test
+    void rebuild_LoadsAvailableItemsInBatches() {
+        //Создаем сущности.
+        when(itemRepository.findAvailableWithOwnerAfter(anyLong(), any()))
+                .thenReturn(List.of(new Item(1L, "Дрель", "Простая дрель", true, owner, null)));
+
+        //Тестируем.
+        searchEngine.rebuild();
+
+        //Проверяем.
+        assertEquals(List.of(1L), ids(searchEngine.search("дрел", PageRequest.of(0, 10))));
+        verify(itemRepository, times(1)).findAvailableWithOwnerAfter(0L, PageRequest.of(0, 1000));
+    }
+
+    @Test
+    void search_MatchesSubstringOfNameOrDescription() {
+        //Создаем сущности.
+        searchEngine.index(new Item(1L, "Дрель", "Простая дрель", true, owner, null));
+        searchEngine.index(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        searchEngine.index(new Item(3L, "Клей", "Тюбик суперклея", true, owner, null));
+
+        //Тестируем и проверяем.
+        assertEquals(List.of(1L), ids(searchEngine.search("ДрЕлЬ", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("аккумулятор", PageRequest.of(0, 10))));
+        assertEquals(List.of(3L), ids(searchEngine.search("суперкле", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), ids(searchEngine.search("ль", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L, 2L, 3L), ids(searchEngine.search("", PageRequest.of(0, 10))));
+        assertTrue(searchEngine.search("молоток", PageRequest.of(0, 10)).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void search_WithPages() {
+        //Создаем сущности.
+        for (long id = 1; id <= 5; id++) {
+            searchEngine.index(new Item(id, "Fork " + id, "Kitchen thing", true, owner, null));
+        }
+
+        //Тестируем и проверяем.
+        assertEquals(List.of(3L, 4L), ids(searchEngine.search("fork", PageRequest.of(1, 2))));
+        assertEquals(List.of(5L), ids(searchEngine.search("kitchen", PageRequest.of(2, 2))));
+    }
+
+    @Test
+    void index_ReplacesPreviousVersionOfItem() {
+        //Создаем сущности.
+        searchEngine.index(new Item(1L, "Fork", "Kitchen thing", true, owner, null));
+
+        //Тестируем.
+        searchEngine.index(new Item(1L, "Spoon", "Kitchen thing", true, owner, null));
+        searchEngine.index(new Item(2L, "Knife", "Sharp", true, owner, null));
+        searchEngine.index(new Item(2L, "Knife", "Sharp", false, owner, null));
+
+        //Проверяем.
+        assertTrue(searchEngine.search("fork", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(searchEngine.search("spoon", PageRequest.of(0, 10))));
+        assertTrue(searchEngine.search("knife", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void rebuild_DoesNotOverwriteNewerChange() {
+        //Создаем сущности.
+        when(itemRepository.findAvailableWithOwnerAfter(anyLong(), any())).thenAnswer(invocation -> {
+            searchEngine.index(new Item(1L, "Spoon", "Kitchen thing", true, owner, null));
+            return List.of(new Item(1L, "Fork", "Kitchen thing", true, owner, null));
+        });
+
+        //Тестируем.
+        searchEngine.rebuild();
+
+        //Проверяем.
+        assertTrue(searchEngine.search("fork", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(searchEngine.search("spoon", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void onUserChanged_RefreshesOwner() {
+        //Создаем сущности.
+        User renamed = new User(1L, "Ivan Petrov", "petrov@mail.com");
+        searchEngine.index(new Item(1L, "Fork", "Kitchen thing", true, owner, null));
+        when(itemRepository.findAvailableWithOwnerByOwnerId(1L))
+                .thenReturn(List.of(new Item(1L, "Fork", "Kitchen thing", true, renamed, null)));
+
+        //Тестируем.
+        searchEngine.onUserChanged(new UserChangedEvent(1L));
+
+        //Проверяем.
+        List<Item> result = searchEngine.search("fork", PageRequest.of(0, 10));
+        assertEquals(1, result.size());
+        assertEquals("Ivan Petrov", result.get(0).getOwner().getName());
+        assertEquals("petrov@mail.com", result.get(0).getOwner().getEmail());
+    }
+
+    @Test
+    void onUserChanged_RemovesItemsOfDeletedOwner() {
+        //Создаем сущности.
+        User other = new User(2L, "Svetlana", "sveta@mail.com");
+        searchEngine.index(new Item(1L, "Fork", "Kitchen thing", true, owner, null));
+        searchEngine.index(new Item(2L, "Fork", "Silver fork", true, other, null));
+        when(itemRepository.findAvailableWithOwnerByOwnerId(1L)).thenReturn(List.of());
+
+        //Тестируем.
+        searchEngine.onUserChanged(new UserChangedEvent(1L));
+
+        //Проверяем.
+        assertEquals(List.of(2L), ids(searchEngine.search("fork", PageRequest.of(0, 10))));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.service;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires booking requests from many threads at once against a real database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingConcurrencyTest {
+
+    static final int THREADS = 16;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    User owner;
+
+    List<User> bookers;
+
+    @BeforeEach
+    void setUp() {
+        //Создаем сущности.
+        String run = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "Svetlana", "sveta" + run + "@stress.com"));
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker" + i, "booker" + i + "-" + run + "@stress.com")));
+        }
+    }
+
+    @Test
+    void overlappingBookingsOfOneItem_OnlyOneSucceeds() throws Exception {
+        //Создаем сущности.
+        Item item = itemRepository.save(new Item(null, "Fork", "Kitchen thing", true, owner, null));
+        LocalDateTime start = tomorrow();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            LocalDateTime bookingStart = start.plusMinutes(i);
+            attempts.add(() -> book(booker, item, bookingStart, start.plusDays(1)));
+        }
+
+        //Тестируем.
+        List<Boolean> results = runConcurrently(attempts);
+
+        //Проверяем.
+        assertEquals(1, results.stream().filter(booked -> booked).count());
+        assertEquals(THREADS - 1, results.stream().filter(booked -> !booked).count());
+    }
+
+    @Test
+    void sameTimeBookingsOfDifferentItems_AllSucceed() throws Exception {
+        //Создаем сущности.
+        LocalDateTime start = tomorrow();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            Item item = itemRepository.save(new Item(null, "Fork" + i, "Kitchen thing", true, owner, null));
+            attempts.add(() -> book(booker, item, start, start.plusDays(1)));
+        }
+
+        //Тестируем.
+        List<Boolean> results = runConcurrently(attempts);
+
+        //Проверяем.
+        assertEquals(THREADS, results.stream().filter(booked -> booked).count());
+    }
+
+    @Test
+    void adjacentBookingsOfOneItem_AllSucceed() throws Exception {
+        //Создаем сущности.
+        Item item = itemRepository.save(new Item(null, "Spoon", "Kitchen thing", true, owner, null));
+        LocalDateTime start = tomorrow();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            LocalDateTime bookingStart = start.plusHours(i);
+            attempts.add(() -> book(booker, item, bookingStart, bookingStart.plusHours(1)));
+        }
+
+        //Тестируем.
+        List<Boolean> results = runConcurrently(attempts);
+
+        //Проверяем.
+        assertEquals(THREADS, results.stream().filter(booked -> booked).count());
+    }
+
+    @Test
+    void parallelApprovals_OnlyOneSucceeds() throws Exception {
+        //Создаем сущности.
+        Booking booking = waitingBooking("Plate");
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            attempts.add(() -> approve(booking, true));
+        }
+
+        //Тестируем.
+        List<Boolean> results = runConcurrently(attempts);
+
+        //Проверяем.
+        Booking saved = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(1, results.stream().filter(approved -> approved).count());
+        assertEquals(Status.APPROVED, saved.getStatus());
+        assertEquals(1L, saved.getVersion());
+    }
+
+    @Test
+    void parallelApprovalsAndRejections_NoLostUpdates() throws Exception {
+        //Создаем сущности.
+        Booking booking = waitingBooking("Cup");
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            attempts.add(() -> approve(booking, approved));
+        }
+
+        //Тестируем.
+        List<Boolean> results = runConcurrently(attempts);
+
+        //Проверяем.
+        Booking saved = bookingRepository.findById(booking.getId()).orElseThrow();
+        List<Boolean> winners = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            if (results.get(i)) {
+                winners.add(i % 2 == 0);
+            }
+        }
+        Status expected = winners.contains(true) ? Status.APPROVED : Status.REJECTED;
+        assertEquals(expected, saved.getStatus());
+        assertEquals((long) winners.size(), saved.getVersion());
+        assertTrue(winners.size() == 1 || winners.contains(true) && winners.contains(false));
+    }
+
+    private Booking waitingBooking(String itemName) {
+        Item item = itemRepository.save(new Item(null, itemName, "Kitchen thing", true, owner, null));
+        LocalDateTime start = tomorrow();
+        return bookingRepository.save(new Booking(null, start, start.plusDays(1), item, bookers.get(0), Status.WAITING));
+    }
+
+    private boolean approve(Booking booking, boolean approved) {
+        try {
+            bookingService.bookingApprove(owner.getId(), booking.getId(), approved);
+            return true;
+        } catch (ResponseStatusException e) {
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+            return false;
+        }
+    }
+
+    /**
+     * Whole seconds: H2 rounds stored timestamps, which would make adjacent periods overlap.
+     */
+    private LocalDateTime tomorrow() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+    }
+
+    private boolean book(User booker, Item item, LocalDateTime start, LocalDateTime end) {
+        try {
+            bookingService.addBooking(booker.getId(), new BookingRequestDto(null, start, end, booker.getId(), item.getId(), null));
+            return true;
+        } catch (BookingConflictException e) {
+            return false;
+        }
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(attempts.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> attempt : attempts) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return attempt.call();
+                }));
+            }
+            ready.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -9,19 +9,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundBookingException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -57,6 +61,9 @@ class BookingServiceImplTest {
     @Mock
     ItemService itemService;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -64,7 +71,7 @@ class BookingServiceImplTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         clock = Clock.fixed(LocalDateTime.parse("2023-06-01T12:00:00").atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
-        bookingService = new BookingServiceImpl(clock, bookingRepository, userService, itemService);
+        bookingService = new BookingServiceImpl(clock, bookingRepository, userService, itemService, eventPublisher);
     }
 
     @Test
@@ -77,17 +84,14 @@ class BookingServiceImplTest {
         String state = "ALL";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.ALL, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -106,17 +110,14 @@ class BookingServiceImplTest {
         String state = "WAITING";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.WAITING);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.WAITING, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -135,16 +136,14 @@ class BookingServiceImplTest {
         String state = "CURRENT";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        doReturn(page).when(bookingRepository).findAllByBookerIdAndStartBeforeAndEndAfterOrderByIdAsc(userId, now, now, PageRequest.of(0, 10));
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.CURRENT, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -163,17 +162,14 @@ class BookingServiceImplTest {
         String state = "REJECTED";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.REJECTED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.REJECTED, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -192,17 +188,14 @@ class BookingServiceImplTest {
         String state = "CANCELED";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.CANCELED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.CANCELED, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.CANCELED, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -221,17 +214,14 @@ class BookingServiceImplTest {
         String state = "FUTURE";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.FUTURE, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -250,17 +240,14 @@ class BookingServiceImplTest {
         String state = "PAST";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.BOOKER, userId, BookingState.PAST, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getAllBookingsWithState(userId, state, 0, 10);
@@ -279,24 +266,21 @@ class BookingServiceImplTest {
         String state = "ALL";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.ALL, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdOrderByStartDesc(userId, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.ALL, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -310,24 +294,21 @@ class BookingServiceImplTest {
         String state = "WAITING";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.WAITING);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.WAITING, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.WAITING, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -341,24 +322,21 @@ class BookingServiceImplTest {
         String state = "CURRENT";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(userId, now, now, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.CURRENT, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(userId, now, now, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.CURRENT, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -372,24 +350,21 @@ class BookingServiceImplTest {
         String state = "REJECTED";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.REJECTED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.REJECTED, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.REJECTED, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
 
     }
@@ -404,24 +379,21 @@ class BookingServiceImplTest {
         String state = "CANCELED";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.CANCELED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.CANCELED, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.CANCELED, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.CANCELED, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.CANCELED, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -435,24 +407,21 @@ class BookingServiceImplTest {
         String state = "FUTURE";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.FUTURE, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.FUTURE, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -466,27 +435,63 @@ class BookingServiceImplTest {
         String state = "PAST";
         Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
         User booker = new User();
-        UserDto userDto = new UserDto();
         booker.setId(userId);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         List<Booking> bookings = new ArrayList<>();
         bookings.add(booking);
-        Page<Booking> page = new PageImpl<>(bookings);
         List<BookingDto> bookingDtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, PageRequest.of(0, 10)))
-                .thenReturn(page);
+        when(bookingRepository.findPage(BookingRole.OWNER, userId, BookingState.PAST, now, 0L, 10))
+                .thenReturn(toViews(bookings));
 
         //Тестируем.
         List<BookingDto> result = bookingService.getBookingByOwner(userId, state, 0, 10);
 
         //Проверяем.
         assertEquals(bookingDtoList, result);
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findPage(BookingRole.OWNER, userId, BookingState.PAST, now, 0L, 10);
         verifyNoMoreInteractions(bookingRepository);
     }
 
+    @Test
+    void getAllBookingsWithStateByCursor() {
+        //Создаем сущность.
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long userId = 1L;
+        Item item = new Item(1L, "Fork", "Kitchen thing", true, new User(), null);
+        User booker = new User();
+        booker.setId(userId);
+        Booking booking = new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, Status.APPROVED);
+        BookingCursor cursor = new BookingCursor(now, 5L);
+
+        when(bookingRepository.findAllAfter(BookingRole.BOOKER, userId, BookingState.PAST, now, cursor, 10))
+                .thenReturn(toViews(List.of(booking)));
+
+        //Тестируем.
+        List<BookingDto> result = bookingService.getAllBookingsWithStateByCursor(userId, "PAST", cursor, 10);
+
+        //Проверяем.
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), result);
+        verify(bookingRepository, times(1)).findAllAfter(BookingRole.BOOKER, userId, BookingState.PAST, now, cursor, 10);
+    }
+
+    @Test
+    void getBookingByOwnerByCursor_UnknownStateFallsBackToAll() {
+        //Создаем сущность.
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long userId = 1L;
+
+        when(bookingRepository.findAllAfter(BookingRole.OWNER, userId, BookingState.ALL, now, null, 10))
+                .thenReturn(new ArrayList<>());
+
+        //Тестируем.
+        List<BookingDto> result = bookingService.getBookingByOwnerByCursor(userId, "UNKNOWN", null, 10);
+
+        //Проверяем.
+        assertTrue(result.isEmpty());
+        verify(bookingRepository, times(1)).findAllAfter(BookingRole.OWNER, userId, BookingState.ALL, now, null, 10);
+    }
+
     @Test
     void addBooking() {
         //Создаем сущности.
@@ -498,14 +503,13 @@ class BookingServiceImplTest {
         String status = "WAITING";
 
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto bookerDto = UserMapper.toUserDto(booker);
         User owner = new User(2L, "Svetlana", "sveta@mail.com");
         Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
         BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, start, end, bookerId, itemId, status);
 
-        when(userService.findUserById(anyLong())).thenReturn(bookerDto);
-        when(itemService.findItem(anyLong())).thenReturn(item);
-        when(itemService.findItem(bookingRequestDto.getItemId())).thenReturn(item);
+        when(userService.getUserReference(anyLong())).thenReturn(booker);
+        when(itemService.lockItem(anyLong())).thenReturn(item);
+        when(itemService.lockItem(bookingRequestDto.getItemId())).thenReturn(item);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         //Тестируем.
@@ -520,9 +524,35 @@ class BookingServiceImplTest {
         assertEquals(booker.getId(), result.getBooker().getId());
         assertEquals(Status.WAITING.toString(), result.getStatus());
 
-        verify(userService, times(1)).findUserById(bookerId);
-        verify(itemService, times(1)).findItem(itemId);
+        verify(userService, times(1)).getUserReference(bookerId);
+        verify(itemService, times(1)).lockItem(itemId);
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(itemId));
+    }
+
+    @Test
+    void addBooking_Overlapping_Conflict() {
+        //Создаем сущности.
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime start = now.plusHours(1L);
+        LocalDateTime end = now.plusHours(2L);
+        Long bookerId = 1L;
+        Long itemId = 1L;
+
+        User booker = new User(1L, "Ivan", "ivan@bik.com");
+        User owner = new User(2L, "Svetlana", "sveta@mail.com");
+        Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(null, start, end, bookerId, itemId, "WAITING");
+
+        when(userService.getUserReference(bookerId)).thenReturn(booker);
+        when(itemService.lockItem(itemId)).thenReturn(item);
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, Status.ACTIVE, end, start))
+                .thenReturn(true);
+
+        //Тестируем и проверяем.
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookerId, bookingRequestDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -549,9 +579,9 @@ class BookingServiceImplTest {
 
         BookingRequestDto bookingRequestDto = BookingMapper.toBookingRequestDto(BookingMapper.toBooking(bookingDto, item, booker));
         //new BookingRequestDto(1L, start, end, bookerId, itemId, status);
-        when(userService.findUserById(anyLong())).thenReturn(bookerDto);
-        when(itemService.findItem(anyLong())).thenReturn(item);
-        when(itemService.findItem(bookingRequestDto.getItemId())).thenReturn(item);
+        when(userService.getUserReference(anyLong())).thenReturn(booker);
+        when(itemService.lockItem(anyLong())).thenReturn(item);
+        when(itemService.lockItem(bookingRequestDto.getItemId())).thenReturn(item);
 
         //Тестируем и проверяем.
         assertThrows(ResponseStatusException.class, () -> bookingService.addBooking(bookerId, bookingRequestDto));
@@ -568,14 +598,13 @@ class BookingServiceImplTest {
         String status = "WAITING";
 
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto bookerDto = UserMapper.toUserDto(booker);
         User owner = new User(2L, "Svetlana", "sveta@mail.com");
         Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
         BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, start, end, bookerId, itemId, status);
 
-        when(userService.findUserById(anyLong())).thenReturn(bookerDto);
-        when(itemService.findItem(anyLong())).thenReturn(item);
-        when(itemService.findItem(bookingRequestDto.getItemId())).thenReturn(item);
+        when(userService.getUserReference(anyLong())).thenReturn(booker);
+        when(itemService.lockItem(anyLong())).thenReturn(item);
+        when(itemService.lockItem(bookingRequestDto.getItemId())).thenReturn(item);
 
         //Тестируем и проверяем.
         assertThrows(ResponseStatusException.class, () -> bookingService.addBooking(bookerId, bookingRequestDto));
@@ -592,13 +621,12 @@ class BookingServiceImplTest {
         String status = "WAITING";
 
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto bookerDto = UserMapper.toUserDto(booker);
         Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
         BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, start, end, bookerId, itemId, status);
 
-        when(userService.findUserById(anyLong())).thenReturn(bookerDto);
-        when(itemService.findItem(anyLong())).thenReturn(item);
-        when(itemService.findItem(bookingRequestDto.getItemId())).thenReturn(item);
+        when(userService.getUserReference(anyLong())).thenReturn(booker);
+        when(itemService.lockItem(anyLong())).thenReturn(item);
+        when(itemService.lockItem(bookingRequestDto.getItemId())).thenReturn(item);
 
         //Тестируем и проверяем.
         assertThrows(ResponseStatusException.class, () -> bookingService.addBooking(bookerId, bookingRequestDto));
@@ -612,13 +640,12 @@ class BookingServiceImplTest {
         String status = "WAITING";
 
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto bookerDto = UserMapper.toUserDto(booker);
         Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
         BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, null, null, bookerId, itemId, status);
 
-        when(userService.findUserById(anyLong())).thenReturn(bookerDto);
-        when(itemService.findItem(anyLong())).thenReturn(item);
-        when(itemService.findItem(bookingRequestDto.getItemId())).thenReturn(item);
+        when(userService.getUserReference(anyLong())).thenReturn(booker);
+        when(itemService.lockItem(anyLong())).thenReturn(item);
+        when(itemService.lockItem(bookingRequestDto.getItemId())).thenReturn(item);
 
         //Тестируем и проверяем.
         assertThrows(ResponseStatusException.class, () -> bookingService.addBooking(bookerId, bookingRequestDto));
@@ -632,20 +659,18 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         User owner = new User(2L, "Svetlana", "sveta@mail.com");
         Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
         BookingDto bookingDto = BookingMapper.toBookingDto(booking);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         BookingDto result = bookingService.findBookingById(userId, bookingId);
 
         assertEquals(bookingDto, result);
 
-        verify(userService, times(1)).findUserById(anyLong());
+        verify(userService, times(1)).checkUserExists(anyLong());
         verify(bookingRepository, times(1)).findById(anyLong());
     }
 
@@ -657,12 +682,10 @@ class BookingServiceImplTest {
         Long userId = 3L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         User owner = new User(2L, "Svetlana", "sveta@mail.com");
         Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(NotFoundBookingException.class, () -> bookingService.findBookingById(userId, bookingId));
@@ -677,11 +700,9 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.WAITING);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         doAnswer(invocation -> {
@@ -694,7 +715,7 @@ class BookingServiceImplTest {
 
         assertEquals(Status.APPROVED, booking.getStatus());
 
-        verify(userService, times(1)).findUserById(userId);
+        verify(userService, times(1)).checkUserExists(userId);
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).save(booking);
     }
@@ -708,11 +729,9 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.WAITING);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         doAnswer(invocation -> {
@@ -725,7 +744,7 @@ class BookingServiceImplTest {
 
         assertEquals(Status.REJECTED, booking.getStatus());
 
-        verify(userService, times(1)).findUserById(userId);
+        verify(userService, times(1)).checkUserExists(userId);
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).save(booking);
     }
@@ -739,12 +758,10 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         User owner = new User(2L, "Svetlana", "sveta@mail.com");
         Item item = new Item(1L, "Fork", "Thing for food.", true, owner, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.WAITING);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(ResponseStatusException.class, () -> bookingService.bookingApprove(userId, bookingId, approved));
@@ -759,13 +776,38 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         User booker = new User(1L, "Ivan", "ivan@bik.com");
-        UserDto userDto = UserMapper.toUserDto(booker);
         Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
         Booking booking = new Booking(1L, start, end, item, booker, Status.APPROVED);
 
-        when(userService.findUserById(anyLong())).thenReturn(userDto);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(ResponseStatusException.class, () -> bookingService.bookingApprove(userId, bookingId, approved));
     }
-}
\ No newline at end of file
+
+    @Test
+    void bookingApprove_AlreadyRejected() {
+        //Создаем сущности.
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long userId = 1L;
+        Long bookingId = 1L;
+        User booker = new User(1L, "Ivan", "ivan@bik.com");
+        Item item = new Item(1L, "Fork", "Thing for food.", true, booker, null);
+        Booking booking = new Booking(1L, now.minusHours(1L), now.plusHours(1L), item, booker, Status.REJECTED);
+
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        //Тестируем и проверяем.
+        assertThrows(ResponseStatusException.class, () -> bookingService.bookingApprove(userId, bookingId, false));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    private List<BookingView> toViews(List<Booking> bookings) {
+        return bookings.stream()
+                .map(booking -> new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                        booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail(),
+                        booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                        booking.getItem().isAvailable(), booking.getItem().getOwner().getId(),
+                        booking.getItem().getOwner().getName(), booking.getItem().getOwner().getEmail(), null))
+                .collect(Collectors.toList());
+    }
+}
@@ -9,21 +9,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundItemException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithDate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemCardCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.RequestMapper;
@@ -36,6 +43,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -46,6 +54,9 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -74,6 +85,14 @@ class ItemServiceImplTest {
     @Mock
     RequestRepository requestRepository;
 
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    ItemCardCache itemCardCache;
+
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -81,7 +100,9 @@ class ItemServiceImplTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         clock = Clock.fixed(LocalDateTime.parse("2023-06-01T12:00:00").atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
-        itemService = new ItemServiceImpl(clock, userService, bookingRepository, itemRepository, commentRepository, requestService, requestRepository);
+        itemCardCache = new ItemCardCache(clock, 100, Duration.ofMinutes(5));
+        itemService = new ItemServiceImpl(clock, userService, bookingRepository, itemRepository, commentRepository,
+                requestService, requestRepository, itemSearchEngine, itemCardCache, eventPublisher);
     }
 
     @Test
@@ -92,13 +113,12 @@ class ItemServiceImplTest {
         LocalDateTime now = LocalDateTime.now(clock);
         User user = new User(userId, "Svetlana", "sveta@mail.com");
         User owner = new User(userId, "Svetlana", "sveta@mail.com");
-        UserDto ownerDto = UserMapper.toUserDto(owner);
         ItemRequest itemRequest = new ItemRequest(2L, "Need fork for eating.", user, now);
         ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(itemRequest);
         Item item = new Item(1L, "Fork", "Kitchen thing", true, user, itemRequest);
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        when(userService.findUserById(userId)).thenReturn(ownerDto);
+        when(userService.getUserReference(userId)).thenReturn(owner);
 
         when(requestService.findItemRequestById(userId, requestId)).thenReturn(itemRequestDto);
 
@@ -120,11 +140,10 @@ class ItemServiceImplTest {
         Long userId = 1L;
         User user = new User(userId, "Svetlana", "sveta@mail.com");
         User owner = new User(userId, "Svetlana", "sveta@mail.com");
-        UserDto ownerDto = UserMapper.toUserDto(owner);
         Item item = new Item(1L, "Fork", "Kitchen thing", true, user, null);
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        when(userService.findUserById(anyLong())).thenReturn(ownerDto);
+        when(userService.getUserReference(anyLong())).thenReturn(owner);
 
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
@@ -146,8 +165,7 @@ class ItemServiceImplTest {
 
         User owner = new User();
         owner.setId(userId);
-        UserDto ownerDto = UserMapper.toUserDto(owner);
-        when(userService.findUserById(userId)).thenReturn(ownerDto);
+        when(userService.getUserReference(userId)).thenReturn(owner);
 
         List<Item> items = new ArrayList<>();
         Item item = new Item(1L, "Fork", "Kitchen thing", true, owner, null);
@@ -165,17 +183,47 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findByOwner(owner, PageRequest.of(0, 10));
     }
 
+    @Test
+    void getItemsByUser_WithLastAndNextBookings() {
+        //Создаем сущности.
+        Long userId = 1L;
+        LocalDateTime now = LocalDateTime.now(clock);
+        User owner = new User(userId, "Svetlana", "sveta@mail.com");
+        User booker = new User(2L, "Ivan", "ivan@mail.com");
+        when(userService.getUserReference(userId)).thenReturn(owner);
+
+        Item fork = new Item(1L, "Fork", "Kitchen thing", true, owner, null);
+        Item spoon = new Item(2L, "Spoon", "Kitchen thing", true, owner, null);
+        when(itemRepository.findByOwner(owner, PageRequest.of(0, 10))).thenReturn(new PageImpl<>(List.of(spoon, fork)));
+
+        Booking last = new Booking(1L, now.minusDays(2), now.minusDays(1), fork, booker, Status.APPROVED);
+        Booking next = new Booking(2L, now.plusDays(1), now.plusDays(2), fork, booker, Status.APPROVED);
+        when(bookingRepository.findLastAndNextBookingsByItemIds(List.of(2L, 1L), now)).thenReturn(List.of(last, next));
+
+        //Тестируем.
+        List<ItemDtoWithDate> result = itemService.getItemsByUser(userId, 0, 10);
+
+        //Делаем проверки.
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(1L, result.get(0).getLastBooking().getId());
+        assertEquals(2L, result.get(0).getNextBooking().getId());
+        assertNull(result.get(1).getLastBooking());
+        assertNull(result.get(1).getNextBooking());
+        verify(bookingRepository, times(1)).findLastAndNextBookingsByItemIds(List.of(2L, 1L), now);
+        verify(bookingRepository, never()).findBookingByItemIdOrderByStartAsc(anyLong());
+    }
+
     @Test
     void updateItem() {
         //Создаем сущности.
         Long userId = 1L;
         Long itemId = 1L;
         ItemDto itemDto = new ItemDto();
-        UserDto ownerDto = new UserDto();
         User owner = new User();
+        owner.setId(userId);
         ItemRequest request = new ItemRequest();
         Item item = new Item(1L, "Fork", "Kitchen thing", true, owner, request);
-        when(userService.findUserById(userId)).thenReturn(ownerDto);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenAnswer(firstItem -> firstItem.getArgument(0));
 
@@ -185,9 +233,11 @@ class ItemServiceImplTest {
         //Проверяем.
         assertNotNull(result);
         assertEquals(ItemMapper.toItemDto(item), result);
-        verify(userService, times(1)).findUserById(userId);
+        verify(userService, times(1)).checkUserExists(userId);
         verify(itemRepository, times(1)).findById(itemId);
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemSearchEngine, times(1)).index(item);
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(itemId));
     }
 
     @Test
@@ -195,15 +245,17 @@ class ItemServiceImplTest {
         //Создаем сущности.
         Long userId = 1L;
         Long itemId = 1L;
-        UserDto userDto = new UserDto(userId, "Svetlana", "sveta@mail.com");
         User user = new User(userId, "Svetlana", "sveta@mail.com");
 
+        LocalDateTime now = LocalDateTime.now(clock);
+        User booker = new User(2L, "Ivan", "ivan@mail.com");
         Item item = new Item(1L, "Fork", "Kitchen thing", true, user, null);
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findTopByItemOwnerIdAndStatusAndStartBeforeOrderByEndDesc(anyLong(), any(Status.class), any(LocalDateTime.class))).thenReturn(Optional.empty());
-        when(bookingRepository.findTopByItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(anyLong(), any(Status.class), any(LocalDateTime.class))).thenReturn(Optional.empty());
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(Collections.emptyList());
+        Comment first = new Comment(1L, "Nice fork", item, booker, now.minusDays(1));
+        Comment second = new Comment(2L, "Still nice", item, booker, now);
+        Booking last = new Booking(1L, now.minusDays(3), now.minusDays(2), item, booker, Status.APPROVED);
+        Booking next = new Booking(2L, now.plusDays(1), now.plusDays(2), item, booker, Status.APPROVED);
+        when(itemRepository.findItemCard(itemId)).thenReturn(List.of(new Object[]{item, first, booker}, new Object[]{item, second, booker}));
+        when(bookingRepository.findLastAndNextBookingsByItemId(itemId, Status.APPROVED, now)).thenReturn(List.of(last, next));
 
         //Тестируем.
         ItemDtoWithDate result = itemService.findItemById(userId, itemId);
@@ -211,11 +263,60 @@ class ItemServiceImplTest {
         //Проверяем.
         assertNotNull(result);
         assertEquals(item.getId(), result.getId());
-        verify(userService, times(1)).findUserById(userId);
-        verify(itemRepository, times(1)).findById(itemId);
-        verify(bookingRepository, times(1)).findTopByItemOwnerIdAndStatusAndStartBeforeOrderByEndDesc(anyLong(), any(Status.class), any(LocalDateTime.class));
-        verify(bookingRepository, times(1)).findTopByItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(anyLong(), any(Status.class), any(LocalDateTime.class));
-        verify(commentRepository, times(1)).findAllByItemId(itemId);
+        assertEquals(1L, result.getLastBooking().getId());
+        assertEquals(2L, result.getNextBooking().getId());
+        assertEquals(List.of(CommentMapper.toCommentDto(first), CommentMapper.toCommentDto(second)), result.getComments());
+        verify(userService, times(1)).checkUserExists(userId);
+        verify(itemRepository, times(1)).findItemCard(itemId);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(commentRepository, never()).findAllByItemId(anyLong());
+    }
+
+    @Test
+    void findItemById_ServedFromCacheUntilItemChanges() {
+        //Создаем сущности.
+        Long userId = 2L;
+        Long itemId = 1L;
+        User owner = new User(1L, "Svetlana", "sveta@mail.com");
+        Item item = new Item(itemId, "Fork", "Kitchen thing", true, owner, null);
+        when(itemRepository.findItemCard(itemId)).thenReturn(List.<Object[]>of(new Object[]{item, null, null}));
+
+        //Тестируем.
+        itemService.findItemById(userId, itemId);
+        itemService.findItemById(userId, itemId);
+        itemCardCache.onItemChanged(new ItemChangedEvent(itemId));
+        itemService.findItemById(userId, itemId);
+
+        //Проверяем.
+        verify(itemRepository, times(2)).findItemCard(itemId);
+    }
+
+    @Test
+    void findItemById_NotFound() {
+        //Создаем сущности.
+        when(itemRepository.findItemCard(1L)).thenReturn(Collections.emptyList());
+
+        //Тестируем и проверяем.
+        assertThrows(NotFoundItemException.class, () -> itemService.findItemById(1L, 1L));
+    }
+
+    @Test
+    void findItemById_NotOwner_SkipsBookings() {
+        //Создаем сущности.
+        Long userId = 2L;
+        Long itemId = 1L;
+        User owner = new User(1L, "Svetlana", "sveta@mail.com");
+        Item item = new Item(itemId, "Fork", "Kitchen thing", true, owner, null);
+        when(itemRepository.findItemCard(itemId)).thenReturn(List.<Object[]>of(new Object[]{item, null, null}));
+
+        //Тестируем.
+        ItemDtoWithDate result = itemService.findItemById(userId, itemId);
+
+        //Проверяем.
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        assertTrue(result.getComments().isEmpty());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -227,13 +328,10 @@ class ItemServiceImplTest {
         Integer size = 10;
         User user = new User();
         user.setId(userId);
-        UserDto userDto = UserMapper.toUserDto(user);
-        when(userService.findUserById(userId)).thenReturn(userDto);
 
         List<Item> items = new ArrayList<>();
         items.add(new Item(1L, "Fork", "Kitchen thing", true, user, null));
-        Page<Item> page = new PageImpl<>(items);
-        when(itemRepository.searchItems(text, PageRequest.of(0, 10))).thenReturn(page);
+        when(itemSearchEngine.search(text, PageRequest.of(0, 10))).thenReturn(items);
 
         //Тестируем.
         List<ItemDto> result = itemService.searchItems(userId, text, from, size);
@@ -242,8 +340,57 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList()), result);
-        verify(userService, times(1)).findUserById(userId);
-        verify(itemRepository, times(1)).searchItems(text, PageRequest.of(0, 10));
+        verify(userService, times(1)).checkUserExists(userId);
+        verify(itemSearchEngine, times(1)).search(text, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void lockItem() {
+        //Создаем сущность.
+        Long itemId = 1L;
+        User user = new User(1L, "Svetlana", "sveta@mail.com");
+        Item item = new Item(itemId, "Fork", "Kitchen thing", true, user, null);
+
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
+
+        //Тестируем.
+        Item result = itemService.lockItem(itemId);
+
+        //Проверяем.
+        assertEquals(item, result);
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getAvailability_ReturnsGapsBetweenBookings() {
+        //Создаем сущность.
+        Long userId = 1L;
+        Long itemId = 1L;
+        LocalDateTime from = LocalDateTime.parse("2023-06-01T00:00:00");
+        LocalDateTime to = from.plusDays(10);
+        Item item = new Item(itemId, "Fork", "Kitchen thing", true, new User(2L, "Svetlana", "sveta@mail.com"), null);
+
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.findPeriods(itemId, Status.ACTIVE, from, to)).thenReturn(List.of(
+                new PeriodDto(from.minusDays(1), from.plusDays(1)),
+                new PeriodDto(from.plusDays(3), from.plusDays(4))));
+
+        //Тестируем.
+        List<PeriodDto> result = itemService.getAvailability(userId, itemId, from, to);
+
+        //Проверяем.
+        assertEquals(List.of(new PeriodDto(from.plusDays(1), from.plusDays(3)), new PeriodDto(from.plusDays(4), to)), result);
+        verify(userService, times(1)).checkUserExists(userId);
+    }
+
+    @Test
+    void getAvailability_WrongPeriod() {
+        //Создаем сущность.
+        LocalDateTime from = LocalDateTime.parse("2023-06-01T00:00:00");
+
+        //Тестируем и проверяем.
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(1L, 1L, from, from));
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -9,8 +9,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.item.model.Item;
@@ -29,6 +27,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -115,6 +114,31 @@ class RequestServiceImplTest {
         verify(requestRepository, times(1)).findAllByRequesterIdOrderByCreatedAsc(anyLong());
     }
 
+    @Test
+    void getAllOwnRequests_GroupsItemsByRequest() {
+        //Создаем сущность.
+        LocalDateTime now = LocalDateTime.now(Clock.systemDefaultZone());
+        Long userId = 1L;
+        User requester = new User(userId, "Svetlana", "sveta@mail.com");
+        User owner = new User(2L, "Ivan", "ivan@mail.com");
+        ItemRequest forkRequest = new ItemRequest(1L, "Need fork.", requester, now);
+        ItemRequest spoonRequest = new ItemRequest(2L, "Need spoon.", requester, now);
+        Item fork = new Item(1L, "Fork", "Kitchen thing", true, owner, forkRequest);
+        Item secondFork = new Item(2L, "Fork", "Silver fork", true, owner, forkRequest);
+
+        when(requestRepository.findAllByRequesterIdOrderByCreatedAsc(userId)).thenReturn(List.of(forkRequest, spoonRequest));
+        when(itemRepository.findAllByRequestIdIn(Set.of(1L, 2L))).thenReturn(List.of(fork, secondFork));
+
+        //Тестируем.
+        List<ItemRequestDto> result = requestService.getAllOwnRequests(userId);
+
+        //Проверяем.
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getItems().size());
+        assertEquals(0, result.get(1).getItems().size());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(Set.of(1L, 2L));
+    }
+
     @Test
     void getAllOthersRequests_WithPages() {
         //Создаем сущность.
@@ -124,18 +148,17 @@ class RequestServiceImplTest {
         ItemRequest itemRequest = new ItemRequest(1L, "Need item for eat.", requester, now);
         List<ItemRequest> itemRequests = new ArrayList<>();
         itemRequests.add(itemRequest);
-        Page<ItemRequest> page = new PageImpl<>(itemRequests); // Пустая страница с пустым списком
-
-        List<ItemRequestDto> itemRequestDtoList = page.stream().map(RequestMapper::toItemRequestDto).collect(Collectors.toList());
+        List<ItemRequestDto> itemRequestDtoList = itemRequests.stream().map(RequestMapper::toItemRequestDto).collect(Collectors.toList());
 
         when(requestRepository.findByRequesterIdNot(userId, PageRequest.of(0, 10)))
-                .thenReturn(page);
+                .thenReturn(itemRequests);
         //Тестируем.
         List<ItemRequestDto> result = requestService.getAllOthersRequests(userId, 0, 10);
 
         //Проверяем.
         assertEquals(itemRequestDtoList, result);
-        verify(itemRepository, times(1)).findAllByRequestId(anyLong());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(Set.of(1L));
+        verify(itemRepository, never()).findAllByRequestId(anyLong());
     }
 
     @Test
@@ -146,15 +169,12 @@ class RequestServiceImplTest {
         Long requestId = 1L;
         User requester = new User();
         requester.setId(userId);
-        UserDto userDto = new UserDto();
-        userDto.setId(userId);
 
         ItemRequest itemRequest = new ItemRequest(1L, "Need item for eat.", requester, now);
         List<Item> items = new ArrayList<>();
         ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(itemRequest);
 
-        when(userService.findUserById(userId)).thenReturn(userDto);
-        when(itemRepository.findAllByRequestId(requestId)).thenReturn(items);
+        when(itemRepository.findAllByRequestIdIn(Set.of(requestId))).thenReturn(items);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
 
         //Тестируем.
@@ -162,6 +182,6 @@ class RequestServiceImplTest {
 
         //Проверяем.
         assertEquals(itemRequestDto, result);
-
+        verify(userService, times(1)).checkUserExists(userId);
     }
 }
\ No newline at end of file
@@ -7,13 +7,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.NotFoundUserException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -27,12 +30,16 @@ class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserServiceImpl(userRepository, new UserCache(100, Duration.ofMinutes(5)), eventPublisher);
     }
 
     @Test
@@ -143,6 +150,41 @@ class UserServiceImplTest {
         assertEquals("john@example.com", result.getEmail());
     }
 
+    @Test
+    void findUserById_ServedFromCache() {
+        // Arrange
+        User user = new User(1L, "John", "john@example.com");
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        // Act
+        userService.findUserById(1L).setName("Changed");
+        UserDto result = userService.findUserById(1L);
+
+        // Assert
+        assertEquals("John", result.getName());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateUser_InvalidatesCachedUser() {
+        // Arrange
+        User existingUser = new User(1L, "John", "john@example.com");
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        userService.findUserById(1L);
+
+        // Act
+        userService.updateUser(1L, new UserDto(1L, "Jane", null));
+        UserDto result = userService.findUserById(1L);
+
+        // Assert
+        assertEquals("Jane", result.getName());
+        verify(userRepository, times(3)).findById(1L);
+    }
+
     @Test
     void findUserById_InvalidUserId_ThrowsException() {
         // Arrange
@@ -153,6 +195,35 @@ class UserServiceImplTest {
         assertThrows(NotFoundUserException.class, () -> userService.findUserById(1L));
     }
 
+    @Test
+    void checkUserExists_UsesCacheBeforeExistsById() {
+        // Arrange
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "John", "john@example.com")));
+        when(userRepository.existsById(2L))
+                .thenReturn(true);
+        userService.findUserById(1L);
+
+        // Act
+        userService.checkUserExists(1L);
+        userService.checkUserExists(2L);
+
+        // Assert
+        verify(userRepository, never()).existsById(1L);
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    void getUserReference_InvalidUserId_ThrowsException() {
+        // Arrange
+        when(userRepository.existsById(1L))
+                .thenReturn(false);
+
+        // Act & Assert
+        assertThrows(NotFoundUserException.class, () -> userService.getUserReference(1L));
+        verify(userRepository, never()).getReferenceById(anyLong());
+    }
+
     @Test
     void deleteUser() {
         // Arrange
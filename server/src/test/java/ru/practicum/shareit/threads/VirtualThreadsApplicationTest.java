@@ -0,0 +1,78 @@
+package ru.practicum.shareit.threads;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the server on Tomcat with {@code shareit.threads.virtual=true}. Runs only on Java 21 or newer.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "shareit.threads.virtual=true")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@EnabledIf("ru.practicum.shareit.threads.VirtualThreads#isSupported")
+@Import(VirtualThreadsApplicationTest.CurrentThreadController.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class VirtualThreadsApplicationTest {
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The second-level cache provider is shared by every test context in the JVM, each with its own database.
+     */
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void request_RunsOnVirtualThread() {
+        //Тестируем.
+        ResponseEntity<Boolean> response = rest.getForEntity("/current-thread/virtual", Boolean.class);
+
+        //Проверяем.
+        assertEquals(Boolean.TRUE, response.getBody());
+    }
+
+    @Test
+    void addAndGetUser_WithVirtualThreads() {
+        //Создаем сущности.
+        UserDto user = rest.postForObject("/users", new UserDto(null, "Ivan", "ivan@virtual.com"), UserDto.class);
+
+        //Тестируем.
+        ResponseEntity<UserDto> response = rest.getForEntity("/users/" + user.getId(), UserDto.class);
+
+        //Проверяем.
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("ivan@virtual.com", response.getBody().getEmail());
+    }
+
+    @RestController
+    static class CurrentThreadController {
+
+        @GetMapping("/current-thread/virtual")
+        public Object isVirtual() throws ReflectiveOperationException {
+            return Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        }
+    }
+}